@@ -1,5 +1,9 @@
 package com.julio.rampUp.config;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,9 +13,10 @@ import org.springframework.security.oauth2.config.annotation.configurers.ClientD
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
-import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
-import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
 
 @Configuration
 @EnableAuthorizationServer
@@ -20,6 +25,9 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserClaimsTokenEnhancer userClaimsTokenEnhancer;
+
 //    // IN MEMORY TOKEN
 //    @Bean
 //    public TokenStore tokenStore() {
@@ -36,22 +44,33 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     public JwtAccessTokenConverter accessTokenConverter() {
         JwtAccessTokenConverter tokenConverter = new JwtAccessTokenConverter();
         tokenConverter.setSigningKey(signingKey);
+        // the claims of a received token end up in OAuth2AuthenticationDetails.getDecodedDetails()
+        tokenConverter.setAccessTokenConverter(new DefaultAccessTokenConverter() {
+            @Override
+            public OAuth2Authentication extractAuthentication(Map<String, ?> claims) {
+                OAuth2Authentication authentication = super.extractAuthentication(claims);
+                authentication.setDetails(claims);
+                return authentication;
+            }
+        });
         return tokenConverter;
     }
 
     /*
-     * JWT TOKEN
+     * JWT TOKEN, decoded once per token and kept for at most 10 minutes
      */
     @Bean
-    public TokenStore tokenStore() {
-        return new JwtTokenStore(accessTokenConverter());
+    public CachingJwtTokenStore tokenStore() {
+        return new CachingJwtTokenStore(accessTokenConverter(), 10_000, Duration.ofMinutes(10));
     }
 
     // ENDPOINTS CONFIGURATION
     @Override
     public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
+        TokenEnhancerChain tokenEnhancerChain = new TokenEnhancerChain();
+        tokenEnhancerChain.setTokenEnhancers(Arrays.asList(userClaimsTokenEnhancer, accessTokenConverter()));
         endpoints.tokenStore(tokenStore()).accessTokenConverter(accessTokenConverter())
-                .authenticationManager(authenticationManager);
+                .tokenEnhancer(tokenEnhancerChain).authenticationManager(authenticationManager);
     }
 
     // CLIENTS CONFIGURATION
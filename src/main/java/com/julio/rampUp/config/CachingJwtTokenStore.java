@@ -0,0 +1,80 @@
+package com.julio.rampUp.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import com.julio.rampUp.entities.dto.CacheStatsDTO;
+import com.julio.rampUp.services.TtlCache;
+
+// a JwtTokenStore that checks the signature and parses a token once, the repeated requests of a client read the
+// result by the hash of the token. An expired token is still returned as it is, so DefaultTokenServices rejects it
+// and removes it from here
+public class CachingJwtTokenStore extends JwtTokenStore {
+
+    private final TtlCache<String, Decoded> decoded;
+
+    public CachingJwtTokenStore(JwtAccessTokenConverter jwtTokenEnhancer, int maxSize, Duration ttl) {
+        super(jwtTokenEnhancer);
+        this.decoded = new TtlCache<>(maxSize, ttl);
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        return decode(tokenValue).accessToken;
+    }
+
+    // a copy is returned: OAuth2AuthenticationManager sets the details of the request on the authentication it gets
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        OAuth2Authentication cached = decode(token).authentication;
+        OAuth2Authentication authentication = new OAuth2Authentication(cached.getOAuth2Request(),
+                cached.getUserAuthentication());
+        authentication.setDetails(cached.getDetails());
+        return authentication;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        decoded.evict(hash(token.getValue()));
+        super.removeAccessToken(token);
+    }
+
+    public CacheStatsDTO stats() {
+        return decoded.stats();
+    }
+
+    // an invalid token throws in the loader, so it is never cached
+    private Decoded decode(String tokenValue) {
+        return decoded.get(hash(tokenValue),
+                key -> new Decoded(super.readAccessToken(tokenValue), super.readAuthentication(tokenValue)));
+    }
+
+    // the tokens themselves are not kept in memory
+    private static String hash(String tokenValue) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Decoded {
+        private final OAuth2AccessToken accessToken;
+        private final OAuth2Authentication authentication;
+
+        private Decoded(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+            this.accessToken = accessToken;
+            this.authentication = authentication;
+        }
+    }
+
+}
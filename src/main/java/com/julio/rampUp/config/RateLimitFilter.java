@@ -0,0 +1,147 @@
+package com.julio.rampUp.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// token buckets for the two endpoints that hash a password without a token: the password grant and the signup.
+// Runs right after CorsConfig and before Spring Security, so a rejected call costs no hashing and no query
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RateLimitFilter implements Filter {
+
+    private static final String TOKEN_PATH = "/oauth/token";
+    private static final String SIGNUP_PATH = "/users/signup";
+
+    private final int capacity;
+    private final long nanosPerToken;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitFilter(@Value("${rate-limit.capacity:10}") int capacity,
+            @Value("${rate-limit.refill-per-minute:10}") int refillPerMinute) {
+        this.capacity = capacity;
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            chain.doFilter(req, resp);
+            return;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean allowed = true;
+        if (TOKEN_PATH.equals(path)) {
+            // the email is checked too, so the guesses on one account from many addresses are also limited
+            allowed = tryAcquire("ip:" + request.getRemoteAddr());
+            String username = request.getParameter("username");
+            if (allowed && username != null)
+                allowed = tryAcquire("email:" + username.toLowerCase(Locale.ROOT));
+        } else if (SIGNUP_PATH.equals(path)) {
+            allowed = tryAcquire("ip:" + request.getRemoteAddr());
+        }
+        if (allowed) {
+            chain.doFilter(req, resp);
+        } else {
+            rejected.increment();
+            tooManyRequests((HttpServletResponse) resp, path);
+        }
+    }
+
+    public boolean tryAcquire(String key) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(capacity, System.nanoTime())).tryAcquire(System.nanoTime());
+    }
+
+    // a bucket left alone long enough to be full again is the same as a new one
+    @Scheduled(initialDelayString = "${rate-limit.evict-interval-ms:60000}",
+            fixedDelayString = "${rate-limit.evict-interval-ms:60000}")
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    // written by hand, a rejected call should not cost more than the work it avoids
+    private void tooManyRequests(HttpServletResponse response, String path) throws IOException {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanosPerToken))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"timestamp\":\"" + Instant.now().toString() + "\",\"status\":" + status.value()
+                + ",\"error\":\"Too many requests\",\"message\":\"Too many attempts, try again later\",\"path\":\""
+                + path + "\"}");
+    }
+
+    // the state is swapped with a compare-and-set, a request never waits on a lock
+    private class Bucket {
+        private final AtomicReference<State> state;
+
+        private Bucket(double tokens, long now) {
+            this.state = new AtomicReference<>(new State(tokens, now));
+        }
+
+        private boolean tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = refilled(current, now);
+                if (tokens < 1)
+                    return false;
+                if (state.compareAndSet(current, new State(tokens - 1, now)))
+                    return true;
+            }
+        }
+
+        private boolean isFull(long now) {
+            return refilled(state.get(), now) >= capacity;
+        }
+
+        private double refilled(State current, long now) {
+            return Math.min(capacity, current.tokens + (double) (now - current.updatedAt) / nanosPerToken);
+        }
+    }
+
+    private static class State {
+        private final double tokens;
+        private final long updatedAt;
+
+        private State(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+}
@@ -15,7 +15,8 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
     public void configure(HttpSecurity http) throws Exception {
         http.authorizeRequests() //
                 .antMatchers("/users/**", "/customers/**", "/orders/**", "/productOfferings/**").permitAll() //
-                .antMatchers("/roles/**", "/tickets/**", "/addresses/**").hasAuthority(admin).anyRequest().denyAll(); //
+                .antMatchers("/roles/**", "/tickets/**", "/addresses/**", "/admin/**").hasAuthority(admin) //
+                .anyRequest().denyAll(); //
     }
 
 }
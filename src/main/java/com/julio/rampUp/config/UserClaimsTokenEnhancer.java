@@ -0,0 +1,38 @@
+package com.julio.rampUp.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenEnhancer;
+import org.springframework.stereotype.Component;
+
+import com.julio.rampUp.repositories.UserRepository;
+
+// writes the user id and customer id into the token, so the ownership checks can compare ids without a query
+@Component
+public class UserClaimsTokenEnhancer implements TokenEnhancer {
+
+    public static final String USER_ID = "user_id";
+    public static final String CUSTOMER_ID = "customer_id";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public OAuth2AccessToken enhance(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        Map<String, Object> claims = new HashMap<>(accessToken.getAdditionalInformation());
+        for (Object[] ids : userRepository.findIdsByEmail(authentication.getName())) {
+            claims.put(USER_ID, ids[0]);
+            // a user without a customer yet gets no customer_id
+            if (ids[1] != null)
+                claims.put(CUSTOMER_ID, ids[1]);
+        }
+        ((DefaultOAuth2AccessToken) accessToken).setAdditionalInformation(claims);
+        return accessToken;
+    }
+
+}
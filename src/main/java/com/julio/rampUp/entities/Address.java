@@ -1,14 +1,17 @@
 package com.julio.rampUp.entities;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -22,13 +25,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonView;
 
 @Entity
-@Table(name = "address_tb")
-@SQLDelete(sql = "UPDATE address_tb SET deleted=true WHERE id =?")
+@Table(name = "address_tb", indexes = @Index(columnList = "customer_id, deleted, id"))
+@SQLDelete(sql = "UPDATE address_tb SET deleted=true, deleted_at=CURRENT_TIMESTAMP WHERE id =?")
 public class Address implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_seq")
+    @SequenceGenerator(name = "address_seq", sequenceName = "address_seq", allocationSize = 50)
     @JsonView(View.Public.class)
     private Integer id;
 
@@ -60,6 +64,9 @@ public class Address implements Serializable {
     @JsonIgnore
     private Boolean deleted = Boolean.FALSE;
 
+    @JsonIgnore
+    private Instant deletedAt;
+
     @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "customer_id")
@@ -148,6 +155,10 @@ public class Address implements Serializable {
         this.deleted = deleted;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(id);
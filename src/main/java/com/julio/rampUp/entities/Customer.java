@@ -1,6 +1,7 @@
 package com.julio.rampUp.entities;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -12,8 +13,10 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -29,15 +32,16 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
 
 @Entity
-@Table(name = "customer_tb")
-@SQLDelete(sql = "UPDATE customer_tb SET deleted=true, customer_Status='isDeleted',"
+@Table(name = "customer_tb", indexes = @Index(columnList = "deleted, id"))
+@SQLDelete(sql = "UPDATE customer_tb SET deleted=true, deleted_at=CURRENT_TIMESTAMP, customer_Status='isDeleted',"
         + " customer_Type=4, password='null' WHERE id=?")
 @Where(clause = "deleted=false")
 public class Customer implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @JsonView(View.Public.class)
     private Integer id;
 
@@ -66,6 +70,10 @@ public class Customer implements Serializable {
     @JsonIgnore
     private Boolean deleted = Boolean.FALSE;
 
+    // when it was soft-deleted, the archival job moves it out of this table once the retention window is over
+    @JsonIgnore
+    private Instant deletedAt;
+
     @JsonIgnoreProperties("customer")
     @OneToOne
     @JsonView(View.Public.class)
@@ -180,6 +188,10 @@ public class Customer implements Serializable {
         this.deleted = deleted;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(id);
@@ -0,0 +1,145 @@
+package com.julio.rampUp.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import com.julio.rampUp.entities.enums.OutboxStatus;
+
+// an email waiting to be sent, written in the transaction that asks for it and sent by EmailOutboxWorker
+@Entity
+@Table(name = "email_outbox_tb", indexes = @Index(columnList = "status, nextAttemptAt"))
+public class EmailOutbox implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private String recipient;
+
+    private String subject;
+
+    @Column(length = 4000)
+    private String body;
+
+    private Integer status;
+
+    private Integer attempts = 0;
+
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    public EmailOutbox() {
+    }
+
+    public EmailOutbox(String recipient, String subject, String body, Instant createdAt) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+        setStatus(OutboxStatus.Pending);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public OutboxStatus getStatus() {
+        return OutboxStatus.valueOf(status);
+    }
+
+    public void setStatus(OutboxStatus status) {
+        if (status != null)
+            this.status = status.getCode();
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public void sent(Instant sentAt) {
+        this.attempts++;
+        this.sentAt = sentAt;
+        this.lastError = null;
+        setStatus(OutboxStatus.Sent);
+    }
+
+    // nextAttemptAt null means no more attempts, the email is dead-lettered
+    public void failed(String error, Instant nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+        if (nextAttemptAt == null) {
+            setStatus(OutboxStatus.Dead);
+        } else {
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        EmailOutbox other = (EmailOutbox) obj;
+        return Objects.equals(id, other.id);
+    }
+
+}
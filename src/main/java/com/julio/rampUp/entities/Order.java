@@ -10,9 +10,11 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import org.hibernate.annotations.SQLDelete;
@@ -23,13 +25,15 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
 
 @Entity
-@Table(name = "order_tb")
+@Table(name = "order_tb", indexes = { @Index(columnList = "instant"),
+        @Index(columnList = "customer_id, deleted, id") })
 @SQLDelete(sql = "UPDATE order_tb SET deleted=true WHERE id =?")
 public class Order implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     @JsonView(View.Public.class)
     private Integer id;
 
@@ -97,6 +101,10 @@ public class Order implements Serializable {
         return items;
     }
 
+    public void addOrderItem(OrderItem orderItem) {
+        items.add(orderItem);
+    }
+
     public Boolean getDeleted() {
         return deleted;
     }
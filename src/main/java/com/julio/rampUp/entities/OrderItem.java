@@ -5,7 +5,12 @@ import java.util.Objects;
 
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
 
 import com.julio.rampUp.entities.pk.OrderItemPk;
 import com.julio.rampUp.view.View;
@@ -14,7 +19,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 
 @Entity
 @Table(name = "orderItem_tb")
-public class OrderItem implements Serializable {
+public class OrderItem implements Serializable, Persistable<OrderItemPk> {
     private static final long serialVersionUID = 1L;
 
     @EmbeddedId
@@ -28,6 +33,10 @@ public class OrderItem implements Serializable {
     @JsonView(View.Public.class)
     private Double totalPrice;
 
+    // the id is assigned by hand, so without this flag every save would be a merge (SELECT + INSERT)
+    @Transient
+    private boolean isNew = true;
+
     public OrderItem() {
     }
 
@@ -63,6 +72,23 @@ public class OrderItem implements Serializable {
         this.totalPrice = totalPrice;
     }
 
+    @Override
+    public OrderItemPk getId() {
+        return id;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     @JsonIgnore
     public Order getOrder() {
         return id.getOrder();
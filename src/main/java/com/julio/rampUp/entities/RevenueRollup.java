@@ -0,0 +1,109 @@
+package com.julio.rampUp.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import com.julio.rampUp.entities.enums.RollupGranularity;
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonView;
+
+// revenue and units sold of a product in an hour or a day, maintained by RevenueRollupService
+@Entity
+@Table(name = "revenue_rollup_tb", uniqueConstraints = @UniqueConstraint(columnNames = { "granularity",
+        "bucketStart", "productId" }), indexes = @Index(columnList = "granularity, bucketStart"))
+public class RevenueRollup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revenue_rollup_seq")
+    @SequenceGenerator(name = "revenue_rollup_seq", sequenceName = "revenue_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonView(View.Public.class)
+    private Integer granularity;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "GMT")
+    @JsonView(View.Public.class)
+    private Instant bucketStart;
+
+    @JsonView(View.Public.class)
+    private Integer productId;
+
+    @JsonView(View.Public.class)
+    private Double revenue = 0.0;
+
+    @JsonView(View.Public.class)
+    private Long units = 0L;
+
+    public RevenueRollup() {
+    }
+
+    public RevenueRollup(RollupGranularity granularity, Instant bucketStart, Integer productId) {
+        setGranularity(granularity);
+        this.bucketStart = bucketStart;
+        this.productId = productId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return RollupGranularity.valueOf(granularity);
+    }
+
+    public void setGranularity(RollupGranularity granularity) {
+        if (granularity != null)
+            this.granularity = granularity.getCode();
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public Integer getProductId() {
+        return productId;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+
+    public Long getUnits() {
+        return units;
+    }
+
+    public void add(double revenue, long units) {
+        this.revenue += revenue;
+        this.units += units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        RevenueRollup other = (RevenueRollup) obj;
+        return Objects.equals(id, other.id);
+    }
+
+}
@@ -1,12 +1,14 @@
 package com.julio.rampUp.entities;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import org.hibernate.annotations.SQLDelete;
@@ -19,13 +21,14 @@ import com.fasterxml.jackson.annotation.JsonView;
 
 @Entity
 @Table(name = "role_tb")
-@SQLDelete(sql = "UPDATE role_tb SET deleted=true WHERE id =?")
+@SQLDelete(sql = "UPDATE role_tb SET deleted=true, deleted_at=CURRENT_TIMESTAMP WHERE id =?")
 @Where(clause = "deleted=false")
 public class Role implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_seq")
+    @SequenceGenerator(name = "role_seq", sequenceName = "role_seq", allocationSize = 50)
     @JsonView(View.Public.class)
     private Integer id;
 
@@ -35,6 +38,9 @@ public class Role implements Serializable {
     @JsonIgnore
     private Boolean deleted = Boolean.FALSE;
 
+    @JsonIgnore
+    private Instant deletedAt;
+
     public Role() {
     }
 
@@ -64,6 +70,10 @@ public class Role implements Serializable {
         this.deleted = deleted;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(id);
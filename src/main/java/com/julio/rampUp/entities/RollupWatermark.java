@@ -0,0 +1,41 @@
+package com.julio.rampUp.entities;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// the orders placed before processedUntil are already counted in the rollups of the job called name
+@Entity
+@Table(name = "rollup_watermark_tb")
+public class RollupWatermark implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String name;
+
+    private Instant processedUntil;
+
+    public RollupWatermark() {
+    }
+
+    public RollupWatermark(String name, Instant processedUntil) {
+        this.name = name;
+        this.processedUntil = processedUntil;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Instant getProcessedUntil() {
+        return processedUntil;
+    }
+
+    public void setProcessedUntil(Instant processedUntil) {
+        this.processedUntil = processedUntil;
+    }
+
+}
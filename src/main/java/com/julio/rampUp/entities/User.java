@@ -1,6 +1,7 @@
 package com.julio.rampUp.entities;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -11,9 +12,11 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotBlank;
 
@@ -26,14 +29,15 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonView;
 
 @Entity
-@Table(name = "user_tb")
-@SQLDelete(sql = "UPDATE user_tb SET deleted=true, password='null' WHERE id=?")
+@Table(name = "user_tb", indexes = @Index(columnList = "email, deleted"))
+@SQLDelete(sql = "UPDATE user_tb SET deleted=true, deleted_at=CURRENT_TIMESTAMP, password='null' WHERE id=?")
 @Where(clause = "deleted=false")
 public class User implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     @JsonView(View.Public.class)
     private Integer id;
 
@@ -57,6 +61,9 @@ public class User implements Serializable {
     @JsonIgnore
     private Boolean deleted = Boolean.FALSE;
 
+    @JsonIgnore
+    private Instant deletedAt;
+
     public User() {
     }
 
@@ -110,6 +117,10 @@ public class User implements Serializable {
         this.deleted = deleted;
     }
 
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(id);
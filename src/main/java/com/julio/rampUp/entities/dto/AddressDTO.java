@@ -8,6 +8,7 @@ import javax.validation.constraints.Positive;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.enums.AddressType;
+import com.julio.rampUp.entities.projections.AddressSummary;
 import com.julio.rampUp.view.View;
 import com.fasterxml.jackson.annotation.JsonView;
 
@@ -55,6 +56,16 @@ public class AddressDTO implements Serializable {
         this.addressType = address.getAddressType();
     }
 
+    public AddressDTO(AddressSummary address) {
+        this.id = address.getId();
+        this.street = address.getStreet();
+        this.houseNumber = address.getHouseNumber();
+        this.neighborhood = address.getNeighborhood();
+        this.zipCode = address.getZipCode();
+        this.country = address.getCountry();
+        this.addressType = AddressType.valueOf(address.getAddressType());
+    }
+
     public Integer getId() {
         return id;
     }
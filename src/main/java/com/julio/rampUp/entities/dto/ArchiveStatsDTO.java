@@ -0,0 +1,106 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonView;
+
+public class ArchiveStatsDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private int retentionDays;
+    @JsonView(View.Public.class)
+    private long runs;
+    @JsonView(View.Public.class)
+    private long batches;
+    @JsonView(View.Public.class)
+    private long customers;
+    @JsonView(View.Public.class)
+    private long users;
+    @JsonView(View.Public.class)
+    private long addresses;
+    @JsonView(View.Public.class)
+    private long roles;
+    @JsonView(View.Public.class)
+    private long rows;
+    @JsonView(View.Public.class)
+    private long restored;
+    @JsonView(View.Public.class)
+    private long pendingCustomers;
+    @JsonView(View.Public.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "GMT")
+    private Instant lastRunAt;
+    @JsonView(View.Public.class)
+    private long lastRunMillis;
+
+    public ArchiveStatsDTO() {
+    }
+
+    public ArchiveStatsDTO(int retentionDays, long runs, long batches, long customers, long users, long addresses,
+            long roles, long rows, long restored, long pendingCustomers, Instant lastRunAt, long lastRunMillis) {
+        this.retentionDays = retentionDays;
+        this.runs = runs;
+        this.batches = batches;
+        this.customers = customers;
+        this.users = users;
+        this.addresses = addresses;
+        this.roles = roles;
+        this.rows = rows;
+        this.restored = restored;
+        this.pendingCustomers = pendingCustomers;
+        this.lastRunAt = lastRunAt;
+        this.lastRunMillis = lastRunMillis;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getAddresses() {
+        return addresses;
+    }
+
+    public long getRoles() {
+        return roles;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getRestored() {
+        return restored;
+    }
+
+    public long getPendingCustomers() {
+        return pendingCustomers;
+    }
+
+    public Instant getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+public class CacheStatsDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private int size;
+    @JsonView(View.Public.class)
+    private long hits;
+    @JsonView(View.Public.class)
+    private long misses;
+    @JsonView(View.Public.class)
+    private long evictions;
+
+    public CacheStatsDTO() {
+    }
+
+    public CacheStatsDTO(int size, long hits, long misses, long evictions) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+}
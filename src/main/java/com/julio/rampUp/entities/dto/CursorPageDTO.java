@@ -0,0 +1,80 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.julio.rampUp.services.exceptions.InvalidCursorException;
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+// page of a keyset (cursor) listing, the next page is asked with ?after=<nextCursor>
+public class CursorPageDTO<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_LIMIT = 100;
+    private static final String PREFIX = "id:";
+
+    @JsonView(View.Public.class)
+    private List<T> content = new ArrayList<>();
+    @JsonView(View.Public.class)
+    private String nextCursor;
+
+    public CursorPageDTO() {
+    }
+
+    public CursorPageDTO(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    // one extra row is read to know if there is a next page without counting
+    public static Pageable pageable(int limit) {
+        return PageRequest.of(0, limit(limit) + 1);
+    }
+
+    public static int limit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static <T> CursorPageDTO<T> of(List<T> rows, int limit, Function<T, Integer> idOf) {
+        limit = limit(limit);
+        if (rows.size() <= limit)
+            return new CursorPageDTO<>(rows, null);
+        List<T> content = new ArrayList<>(rows.subList(0, limit));
+        return new CursorPageDTO<>(content, encode(idOf.apply(content.get(limit - 1))));
+    }
+
+    public static String encode(Integer id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Integer decode(String cursor, Integer firstId) {
+        if (cursor == null || cursor.isBlank())
+            return firstId;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX))
+                throw new InvalidCursorException(cursor);
+            return Integer.valueOf(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // bad base64 or not a number
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+}
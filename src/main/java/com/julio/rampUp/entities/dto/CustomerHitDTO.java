@@ -0,0 +1,40 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+// a search result, read from the search index only
+public class CustomerHitDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private Integer id;
+    @JsonView(View.Public.class)
+    private String customerName;
+    @JsonView(View.Public.class)
+    private Integer documentNumber;
+
+    public CustomerHitDTO() {
+    }
+
+    public CustomerHitDTO(Integer id, String customerName, Integer documentNumber) {
+        this.id = id;
+        this.customerName = customerName;
+        this.documentNumber = documentNumber;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public Integer getDocumentNumber() {
+        return documentNumber;
+    }
+
+}
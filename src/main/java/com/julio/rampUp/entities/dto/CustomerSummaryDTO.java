@@ -0,0 +1,119 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+import com.julio.rampUp.entities.enums.CustomerType;
+import com.julio.rampUp.entities.projections.AddressSummary;
+import com.julio.rampUp.entities.projections.CustomerSummary;
+import com.julio.rampUp.entities.projections.OrderSummary;
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonView;
+
+// what /customers/home/{id}/summary returns: the same number of columns whatever the size of the order history
+public class CustomerSummaryDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private Integer id;
+    @JsonView(View.Public.class)
+    private String customerName;
+    @JsonView(View.Public.class)
+    private Integer documentNumber;
+    @JsonView(View.Public.class)
+    private String customerStatus;
+    @JsonView(View.Public.class)
+    private CustomerType customerType;
+    @JsonView(View.Public.class)
+    private String creditScore;
+    @JsonView(View.Public.class)
+    private String email;
+    @JsonView(View.Public.class)
+    private long addressCount;
+    @JsonView(View.Public.class)
+    private long orderCount;
+    @JsonView(View.Public.class)
+    private long cancelledOrderCount;
+    @JsonView(View.Public.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "GMT")
+    private Instant lastOrderAt;
+    @JsonView(View.Public.class)
+    private AddressDTO defaultAddress;
+    @JsonView(View.Public.class)
+    private List<OrderSummary> recentOrders;
+
+    public CustomerSummaryDTO() {
+    }
+
+    public CustomerSummaryDTO(CustomerSummary customer, AddressSummary defaultAddress,
+            List<OrderSummary> recentOrders) {
+        this.id = customer.getId();
+        this.customerName = customer.getCustomerName();
+        this.documentNumber = customer.getDocumentNumber();
+        this.customerStatus = customer.getCustomerStatus();
+        this.customerType = customer.getCustomerType() == null ? null : CustomerType.valueOf(customer.getCustomerType());
+        this.creditScore = customer.getCreditScore();
+        this.email = customer.getEmail();
+        this.addressCount = customer.getAddressCount() == null ? 0 : customer.getAddressCount();
+        this.orderCount = customer.getOrderCount() == null ? 0 : customer.getOrderCount();
+        this.cancelledOrderCount = customer.getCancelledOrderCount() == null ? 0 : customer.getCancelledOrderCount();
+        this.lastOrderAt = customer.getLastOrderAt();
+        this.defaultAddress = defaultAddress == null ? null : new AddressDTO(defaultAddress);
+        this.recentOrders = recentOrders;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public Integer getDocumentNumber() {
+        return documentNumber;
+    }
+
+    public String getCustomerStatus() {
+        return customerStatus;
+    }
+
+    public CustomerType getCustomerType() {
+        return customerType;
+    }
+
+    public String getCreditScore() {
+        return creditScore;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public long getAddressCount() {
+        return addressCount;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getCancelledOrderCount() {
+        return cancelledOrderCount;
+    }
+
+    public Instant getLastOrderAt() {
+        return lastOrderAt;
+    }
+
+    public AddressDTO getDefaultAddress() {
+        return defaultAddress;
+    }
+
+    public List<OrderSummary> getRecentOrders() {
+        return recentOrders;
+    }
+
+}
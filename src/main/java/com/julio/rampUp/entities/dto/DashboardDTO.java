@@ -0,0 +1,42 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.julio.rampUp.entities.ItemsSum;
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+// what /orders/info, /orders/sold and /productOfferings/quantity return, in one payload
+public class DashboardDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private List<Integer> ordersInfo;
+    @JsonView(View.Public.class)
+    private List<ItemsSum> soldItems;
+    @JsonView(View.Public.class)
+    private List<Integer> productsInfo;
+
+    public DashboardDTO() {
+    }
+
+    public DashboardDTO(List<Integer> ordersInfo, List<ItemsSum> soldItems, List<Integer> productsInfo) {
+        this.ordersInfo = ordersInfo;
+        this.soldItems = soldItems;
+        this.productsInfo = productsInfo;
+    }
+
+    public List<Integer> getOrdersInfo() {
+        return ordersInfo;
+    }
+
+    public List<ItemsSum> getSoldItems() {
+        return soldItems;
+    }
+
+    public List<Integer> getProductsInfo() {
+        return productsInfo;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+public class HashingStatsDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private int strength;
+    @JsonView(View.Public.class)
+    private int active;
+    @JsonView(View.Public.class)
+    private int queued;
+    @JsonView(View.Public.class)
+    private long completed;
+    @JsonView(View.Public.class)
+    private long rejected;
+
+    public HashingStatsDTO() {
+    }
+
+    public HashingStatsDTO(int strength, int active, int queued, long completed, long rejected) {
+        this.strength = strength;
+        this.active = active;
+        this.queued = queued;
+        this.completed = completed;
+        this.rejected = rejected;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+}
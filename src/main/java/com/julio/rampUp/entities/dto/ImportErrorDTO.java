@@ -0,0 +1,40 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+public class ImportErrorDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // line of the file, the header of a csv is line 1
+    @JsonView(View.Public.class)
+    private long line;
+    @JsonView(View.Public.class)
+    private String email;
+    @JsonView(View.Public.class)
+    private String message;
+
+    public ImportErrorDTO() {
+    }
+
+    public ImportErrorDTO(long line, String email, String message) {
+        this.line = line;
+        this.email = email;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+}
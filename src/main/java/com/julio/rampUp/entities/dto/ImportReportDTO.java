@@ -0,0 +1,62 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+public class ImportReportDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private long rows;
+    @JsonView(View.Public.class)
+    private long imported;
+    @JsonView(View.Public.class)
+    private long failed;
+    @JsonView(View.Public.class)
+    private long elapsedMillis;
+    @JsonView(View.Public.class)
+    private double rowsPerSecond;
+    // the first errors only, failed has the count
+    @JsonView(View.Public.class)
+    private List<ImportErrorDTO> errors;
+
+    public ImportReportDTO() {
+    }
+
+    public ImportReportDTO(long rows, long imported, long failed, long elapsedMillis, List<ImportErrorDTO> errors) {
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+        this.errors = errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+}
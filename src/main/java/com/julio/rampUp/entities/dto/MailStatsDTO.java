@@ -0,0 +1,70 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+public class MailStatsDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonView(View.Public.class)
+    private boolean pooled;
+    @JsonView(View.Public.class)
+    private long sent;
+    @JsonView(View.Public.class)
+    private long failed;
+    @JsonView(View.Public.class)
+    private long batches;
+    @JsonView(View.Public.class)
+    private long connections;
+    @JsonView(View.Public.class)
+    private double avgLatencyMillis;
+    @JsonView(View.Public.class)
+    private double messagesPerSecond;
+
+    public MailStatsDTO() {
+    }
+
+    public MailStatsDTO(boolean pooled, long sent, long failed, long batches, long connections,
+            double avgLatencyMillis, double messagesPerSecond) {
+        this.pooled = pooled;
+        this.sent = sent;
+        this.failed = failed;
+        this.batches = batches;
+        this.connections = connections;
+        this.avgLatencyMillis = avgLatencyMillis;
+        this.messagesPerSecond = messagesPerSecond;
+    }
+
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getConnections() {
+        return connections;
+    }
+
+    // time spent sending, per message
+    public double getAvgLatencyMillis() {
+        return avgLatencyMillis;
+    }
+
+    // messages over the time spent sending
+    public double getMessagesPerSecond() {
+        return messagesPerSecond;
+    }
+
+}
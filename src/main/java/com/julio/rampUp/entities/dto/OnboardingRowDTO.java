@@ -0,0 +1,97 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+import com.julio.rampUp.entities.enums.CustomerType;
+
+// one account of a bulk onboarding file: the user, its customer and optionally one address
+public class OnboardingRowDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NotBlank(message = "Email is mandatory")
+    private String email;
+
+    @NotBlank(message = "Password is mandatory")
+    private String password;
+
+    @NotBlank(message = "Name is mandatory")
+    private String customerName;
+
+    @Positive
+    @NotNull(message = "Document Number must not be null")
+    private Integer documentNumber;
+
+    @NotNull(message = "Customer type is mandatory")
+    private CustomerType customerType;
+
+    @NotBlank(message = "Credit score is mandatory")
+    private String creditScore;
+
+    @Valid
+    private AddressDTO address;
+
+    public OnboardingRowDTO() {
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public Integer getDocumentNumber() {
+        return documentNumber;
+    }
+
+    public void setDocumentNumber(Integer documentNumber) {
+        this.documentNumber = documentNumber;
+    }
+
+    public CustomerType getCustomerType() {
+        return customerType;
+    }
+
+    public void setCustomerType(CustomerType customerType) {
+        this.customerType = customerType;
+    }
+
+    public String getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(String creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    public AddressDTO getAddress() {
+        return address;
+    }
+
+    public void setAddress(AddressDTO address) {
+        this.address = address;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.julio.rampUp.entities.dto;
+
+import java.io.Serializable;
+
+// total of rows and how many of them have a status flag set, read with one conditional-aggregate query
+public class StatusCountDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+    private long flagged;
+
+    public StatusCountDTO() {
+    }
+
+    public StatusCountDTO(Long total, Long flagged) {
+        this.total = total == null ? 0 : total;
+        this.flagged = flagged == null ? 0 : flagged;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getFlagged() {
+        return flagged;
+    }
+
+    public long getNotFlagged() {
+        return total - flagged;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.julio.rampUp.entities.enums;
+
+public enum OutboxStatus {
+    Pending(1), Sent(2), Dead(3);
+
+    private int code;
+
+    private OutboxStatus(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static OutboxStatus valueOf(int code) {
+        for (OutboxStatus value : OutboxStatus.values()) {
+            if (value.getCode() == code)
+                return value;
+        }
+        throw new IllegalArgumentException("Invalid outbox status code");
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.julio.rampUp.entities.enums;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    Hour(1, ChronoUnit.HOURS), Day(2, ChronoUnit.DAYS);
+
+    private int code;
+    private ChronoUnit unit;
+
+    private RollupGranularity(int code, ChronoUnit unit) {
+        this.code = code;
+        this.unit = unit;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    // start of the bucket the instant falls in, in UTC
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public static RollupGranularity valueOf(int code) {
+        for (RollupGranularity value : RollupGranularity.values()) {
+            if (value.getCode() == code)
+                return value;
+        }
+        throw new IllegalArgumentException("Invalid rollup granularity code");
+    }
+
+}
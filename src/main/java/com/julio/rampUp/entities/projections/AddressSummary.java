@@ -0,0 +1,20 @@
+package com.julio.rampUp.entities.projections;
+
+// the address columns only, without the customer it belongs to
+public interface AddressSummary {
+
+    Integer getId();
+
+    String getStreet();
+
+    Integer getHouseNumber();
+
+    String getNeighborhood();
+
+    Integer getZipCode();
+
+    String getCountry();
+
+    Integer getAddressType();
+
+}
@@ -0,0 +1,30 @@
+package com.julio.rampUp.entities.projections;
+
+import java.time.Instant;
+
+// the customer columns, its user's email and the aggregates of its addresses and orders, read in one row
+public interface CustomerSummary {
+
+    Integer getId();
+
+    String getCustomerName();
+
+    Integer getDocumentNumber();
+
+    String getCustomerStatus();
+
+    Integer getCustomerType();
+
+    String getCreditScore();
+
+    String getEmail();
+
+    Long getAddressCount();
+
+    Long getOrderCount();
+
+    Long getCancelledOrderCount();
+
+    Instant getLastOrderAt();
+
+}
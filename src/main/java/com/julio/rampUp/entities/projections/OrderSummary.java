@@ -0,0 +1,31 @@
+package com.julio.rampUp.entities.projections;
+
+import java.time.Instant;
+
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonView;
+
+// an order without its graph, the items are only counted and summed
+public interface OrderSummary {
+
+    @JsonView(View.Public.class)
+    Integer getId();
+
+    @JsonView(View.Public.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "GMT")
+    Instant getInstant();
+
+    @JsonView(View.Public.class)
+    Boolean getDeleted();
+
+    @JsonView(View.Public.class)
+    Integer getDeliveryAddressId();
+
+    @JsonView(View.Public.class)
+    Long getItemCount();
+
+    @JsonView(View.Public.class)
+    Double getTotal();
+
+}
@@ -1,16 +1,30 @@
 package com.julio.rampUp.repositories;
 
-import org.springframework.data.domain.Page;
+import java.util.List;
+
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.julio.rampUp.entities.Address;
+import com.julio.rampUp.entities.projections.AddressSummary;
 
 public interface AddressRepository extends JpaRepository<Address, Integer> {
 
-    Page<Address> findAllByDeleted(Pageable pageable, Boolean deleted);
+    Slice<Address> findAllByDeleted(Pageable pageable, Boolean deleted);
 
     @Query("SELECT a FROM Address a WHERE a.customer.id=?1 AND a.deleted=false")
-    Page<Address> findAllAddressesByCustomerId(Pageable pageable, Integer id);
+    Slice<Address> findAllAddressesByCustomerId(Pageable pageable, Integer id);
+
+    // the first home address, or the oldest one when there is none, the pageable only carries the limit
+    @Query("SELECT a.id AS id, a.street AS street, a.houseNumber AS houseNumber, a.neighborhood AS neighborhood, "
+            + "a.zipCode AS zipCode, a.country AS country, a.addressType AS addressType FROM Address a "
+            + "WHERE a.customer.id = ?1 AND a.deleted = false "
+            + "ORDER BY CASE WHEN a.addressType = 1 THEN 0 ELSE 1 END, a.id")
+    List<AddressSummary> findDefaultByCustomerId(Integer id, Pageable pageable);
+
+    // keyset pagination, the pageable only carries the limit
+    List<Address> findByDeletedAndIdGreaterThanOrderByIdAsc(Boolean deleted, Integer id, Pageable pageable);
+
 }
@@ -1,12 +1,53 @@
 package com.julio.rampUp.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.projections.CustomerSummary;
 
 public interface CustomerRepository extends JpaRepository<Customer, Integer> {
     @Override
     Page<Customer> findAll(Pageable pageable);
+
+    // no count query, for the /page/{page} listings
+    Slice<Customer> findAllBy(Pageable pageable);
+
+    // keyset pagination, the pageable only carries the limit
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    // ownership checks only need the email, not the customer graph
+    @Query("SELECT u.email FROM Customer c JOIN c.user u WHERE c.id = ?1")
+    Optional<String> findOwnerEmail(Integer id);
+
+    // the search index rows, read fetchSize rows at a time without filling the persistence context
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true") })
+    @Query("SELECT c.id, c.customerName, c.documentNumber FROM Customer c")
+    Stream<Object[]> streamSearchRows();
+
+    // one row with the counts computed by the database, however many addresses and orders the customer has
+    @Query("SELECT c.id AS id, c.customerName AS customerName, c.documentNumber AS documentNumber, "
+            + "c.customerStatus AS customerStatus, c.customerType AS customerType, c.creditScore AS creditScore, "
+            + "u.email AS email, "
+            + "(SELECT COUNT(a) FROM Address a WHERE a.customer = c AND a.deleted = false) AS addressCount, "
+            + "(SELECT COUNT(o) FROM Order o WHERE o.customer = c) AS orderCount, "
+            + "(SELECT COUNT(o) FROM Order o WHERE o.customer = c AND o.deleted = true) AS cancelledOrderCount, "
+            + "(SELECT MAX(o.instant) FROM Order o WHERE o.customer = c) AS lastOrderAt "
+            + "FROM Customer c LEFT JOIN c.user u WHERE c.id = ?1")
+    Optional<CustomerSummary> findSummaryById(Integer id);
+
 }
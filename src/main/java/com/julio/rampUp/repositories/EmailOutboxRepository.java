@@ -0,0 +1,27 @@
+package com.julio.rampUp.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.julio.rampUp.entities.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = ?1 AND e.nextAttemptAt <= ?2 ORDER BY e.nextAttemptAt")
+    List<EmailOutbox> findDue(Integer status, Instant now, Pageable pageable);
+
+    // moves nextAttemptAt past the send, only the first caller that saw the same nextAttemptAt gets 1
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = ?3 WHERE e.id = ?1 AND e.nextAttemptAt = ?2")
+    int claim(Long id, Instant seenNextAttemptAt, Instant leaseUntil);
+
+    long countByStatus(Integer status);
+
+}
@@ -1,5 +1,6 @@
 package com.julio.rampUp.repositories;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,14 +10,17 @@ import com.julio.rampUp.entities.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
 
-    @Query(value = "SELECT po.id, po.product_name as prodname, SUM(o.quantity) as quantity "
-            + "FROM order_item_tb o JOIN product_offering_tb po ON o.items_id = po.id "
-            + "GROUP BY po.product_name, po.id", nativeQuery = true)
+    // every product with the quantity sold in the orders that are not cancelled, 0 for the products never sold
+    @Query(value = "SELECT po.id, po.product_name as prodname, "
+            + "COALESCE(SUM(CASE WHEN od.deleted = false THEN oi.quantity END), 0) as quantity "
+            + "FROM product_offering_tb po LEFT JOIN order_item_tb oi ON oi.items_id = po.id "
+            + "LEFT JOIN order_tb od ON od.id = oi.order_id GROUP BY po.id, po.product_name ORDER BY po.id",
+            nativeQuery = true)
     List<Object[]> quantitySoldItems();
 
-    @Query(value = "SELECT po.id,po.product_name as prodname, 0 as quantity "
-            + "FROM order_item_tb o JOIN product_offering_tb po ON o.items_id != po.id "
-            + "WHERE po.id NOT IN (?1) GROUP BY po.product_name, po.id", nativeQuery = true)
-    List<Object[]> quantityNotSoldItems(List<Integer> soldPOIds);
+    // order instant, product id, quantity and total price of the items of the orders placed in [from, to)
+    @Query("SELECT o.instant, i.id.productOffering.id, i.quantity, i.totalPrice FROM OrderItem i JOIN i.id.order o "
+            + "WHERE o.deleted = false AND o.instant >= ?1 AND o.instant < ?2")
+    List<Object[]> findSalesPlacedBetween(Instant from, Instant to);
 
 }
@@ -1,24 +1,81 @@
 package com.julio.rampUp.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
+import com.julio.rampUp.entities.projections.OrderSummary;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 
     @Override
     Page<Order> findAll(Pageable pageable);
 
-    @Query("SELECT o FROM Order o WHERE o.customer.id = ?1 AND o.deleted=false ORDER BY o.id DESC")
-    Page<Order> findAllOrdersByCustomerId(Pageable pageable, Integer id);
+    // paging is done on the ids only, the rows are then loaded with findAllWith...ByIdIn
+    @Query("SELECT o.id FROM Order o")
+    Slice<Integer> findAllIds(Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = ?1 AND o.deleted=false ORDER BY o.id DESC")
+    Slice<Integer> findAllOrderIdsByCustomerId(Pageable pageable, Integer id);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.customer c LEFT JOIN FETCH c.user u LEFT JOIN FETCH u.roles "
+            + "LEFT JOIN FETCH o.deliveryAddress WHERE o.id IN ?1")
+    List<Order> findAllWithCustomerByIdIn(Collection<Integer> ids);
+
+    // the order and product of an item are part of its key, so they must already be loaded when this runs,
+    // otherwise Hibernate selects them one by one
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN ?1")
+    List<Order> findAllWithItemsByIdIn(Collection<Integer> ids);
+
+    // all the orders and the cancelled ones in one pass
+    @Query("SELECT new com.julio.rampUp.entities.dto.StatusCountDTO(COUNT(o), "
+            + "SUM(CASE WHEN o.deleted = true THEN 1L ELSE 0L END)) FROM Order o")
+    StatusCountDTO countCancelled();
+
+    // ownership checks only need the email, not the order graph
+    @Query("SELECT u.email FROM Order o JOIN o.customer c JOIN c.user u WHERE o.id = ?1")
+    Optional<String> findOwnerEmail(Integer id);
+
+    // the newest orders of a customer, the items are counted and summed by the database instead of loaded
+    @Query("SELECT o.id AS id, o.instant AS instant, o.deleted AS deleted, o.deliveryAddress.id AS deliveryAddressId, "
+            + "(SELECT COUNT(i) FROM OrderItem i WHERE i.id.order = o) AS itemCount, "
+            + "(SELECT COALESCE(SUM(i.totalPrice), 0.0) FROM OrderItem i WHERE i.id.order = o) AS total "
+            + "FROM Order o WHERE o.customer.id = ?1 ORDER BY o.id DESC")
+    List<OrderSummary> findRecentByCustomerId(Integer id, Pageable pageable);
+
+    @Query("SELECT o.customer.id FROM Order o WHERE o.id = ?1")
+    Optional<Integer> findCustomerIdById(Integer id);
+
+    // the instant of the first order placed in [from, to), read from the instant index
+    @Query("SELECT MIN(o.instant) FROM Order o WHERE o.instant >= ?1 AND o.instant < ?2")
+    Instant findFirstInstantBetween(Instant from, Instant to);
 
-    @Query("SELECT count(*) FROM Order o WHERE o.deleted=false")
-    Integer quantityOfOrders();
+    // the export rows, one per item or one with the item columns null for an order without items. Only scalars are
+    // selected so nothing piles up in the persistence context, and the driver reads them fetchSize rows at a time
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true") })
+    @Query("SELECT o.id, o.instant, o.deleted, o.customer.id, o.deliveryAddress.id, i.id.productOffering.id, "
+            + "i.quantity, i.discount, i.totalPrice FROM Order o LEFT JOIN o.items i ORDER BY o.id")
+    Stream<Object[]> streamExportRows();
 
-    @Query("SELECT count(*) FROM Order o WHERE o.deleted=true")
-    Integer quantityOfCancelledOrders();
+    // keyset pagination, the pageable only carries the limit
+    @Query("SELECT o.id FROM Order o WHERE o.id < ?1 ORDER BY o.id DESC")
+    List<Integer> findIdsBefore(Integer id, Pageable pageable);
 
 }
@@ -1,18 +1,33 @@
 package com.julio.rampUp.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
 
 public interface ProductOfferingRepository extends JpaRepository<ProductOffering, Integer> {
     @Override
     Page<ProductOffering> findAll(Pageable pageable);
 
-    @Query(value = "SELECT COUNT(*) FROM product_offering_tb t WHERE t.sell_Indicator=true", nativeQuery = true)
-    List<Object[]> productToSale();
+    // no count query, for the /page/{page} listings
+    Slice<ProductOffering> findAllBy(Pageable pageable);
+
+    // all the products and the ones for sale in one pass
+    @Query("SELECT new com.julio.rampUp.entities.dto.StatusCountDTO(COUNT(p), "
+            + "SUM(CASE WHEN p.sellIndicator = true THEN 1L ELSE 0L END)) FROM ProductOffering p")
+    StatusCountDTO countForSale();
+
+    @Query("SELECT DISTINCT i.id.productOffering FROM OrderItem i WHERE i.id.order.id IN ?1")
+    List<ProductOffering> findAllByOrderIdIn(Collection<Integer> orderIds);
+
+    // keyset pagination, the pageable only carries the limit
+    List<ProductOffering> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
 }
@@ -0,0 +1,21 @@
+package com.julio.rampUp.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.julio.rampUp.entities.RevenueRollup;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    List<RevenueRollup> findAllByGranularityAndBucketStartIn(Integer granularity, Collection<Instant> bucketStarts);
+
+    // served by the (granularity, bucket_start) index, so it does not depend on the size of the order history
+    @Query("SELECT r FROM RevenueRollup r WHERE r.granularity = ?1 AND r.bucketStart >= ?2 AND r.bucketStart < ?3 "
+            + "AND (?4 IS NULL OR r.productId = ?4) ORDER BY r.bucketStart, r.productId")
+    List<RevenueRollup> findRange(Integer granularity, Instant from, Instant to, Integer productId);
+
+}
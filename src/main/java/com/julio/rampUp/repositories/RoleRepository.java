@@ -1,7 +1,10 @@
 package com.julio.rampUp.repositories;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.julio.rampUp.entities.Role;
@@ -10,4 +13,11 @@ public interface RoleRepository extends JpaRepository<Role, Integer> {
 
     @Override
     Page<Role> findAll(Pageable pageable);
+
+    // no count query, for the /page/{page} listings
+    Slice<Role> findAllBy(Pageable pageable);
+
+    // keyset pagination, the pageable only carries the limit
+    List<Role> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
 }
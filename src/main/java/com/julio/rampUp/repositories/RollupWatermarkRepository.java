@@ -0,0 +1,20 @@
+package com.julio.rampUp.repositories;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import com.julio.rampUp.entities.RollupWatermark;
+
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+
+    // the row stays locked until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM RollupWatermark w WHERE w.name = ?1")
+    Optional<RollupWatermark> findForUpdate(String name);
+
+}
@@ -1,7 +1,10 @@
 package com.julio.rampUp.repositories;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -12,6 +15,13 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
     @Query("SELECT t FROM Ticket t WHERE t.solved = ?1")
     Page<Ticket> findAll(Pageable pageable, Boolean solved);
 
+    // no count query, for the /page/{page} listings
+    Slice<Ticket> findAllBy(Pageable pageable);
+
     @Query("SELECT t FROM Ticket t WHERE t.customerId = ?1 ORDER BY t.id DESC")
-    Page<Ticket> findAllTicketsByCustomerId(Pageable pageable, Integer id);
+    Slice<Ticket> findAllTicketsByCustomerId(Pageable pageable, Integer id);
+
+    // keyset pagination, the pageable only carries the limit
+    List<Ticket> findByIdLessThanOrderByIdDesc(Integer id, Pageable pageable);
+
 }
@@ -1,10 +1,14 @@
 package com.julio.rampUp.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import com.julio.rampUp.entities.User;
@@ -14,10 +18,33 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     @Query("SELECT CASE WHEN COUNT(*) > 0 THEN TRUE ELSE FALSE END FROM User u WHERE u.email = ?1")
     Boolean checkEmail(String email);
 
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+
     @Override
     Page<User> findAll(Pageable pageable);
 
+    // no count query, for the /page/{page} listings
+    Slice<User> findAllBy(Pageable pageable);
+
     @Query("SELECT u FROM User u WHERE u.email = ?1")
     Optional<User> findByEmail(String email);
 
+    // keyset pagination, the pageable only carries the limit
+    List<User> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+    // user id and customer id (null when there is no customer yet), for the token claims
+    @Query("SELECT u.id, c.id FROM User u LEFT JOIN Customer c ON c.user = u WHERE u.email = ?1")
+    List<Object[]> findIdsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.id = ?1")
+    Optional<String> findEmailById(Integer id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = ?2 WHERE u.email = ?1")
+    int updatePassword(String email, String password);
+
 }
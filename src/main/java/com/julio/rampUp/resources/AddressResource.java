@@ -7,10 +7,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.dto.AddressDTO;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.services.AddressService;
 import com.julio.rampUp.view.View;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -25,7 +27,15 @@ public class AddressResource {
     @GetMapping(value = "/page/{page}")
     @JsonView(View.Public.class)
     public ResponseEntity<List<AddressDTO>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    public ResponseEntity<CursorPageDTO<AddressDTO>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
     }
 
     @GetMapping(value = "/{id}")
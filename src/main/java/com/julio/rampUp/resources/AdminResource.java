@@ -0,0 +1,105 @@
+package com.julio.rampUp.resources;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.julio.rampUp.config.CachingJwtTokenStore;
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.dto.ArchiveStatsDTO;
+import com.julio.rampUp.entities.dto.CacheStatsDTO;
+import com.julio.rampUp.entities.dto.DashboardDTO;
+import com.julio.rampUp.entities.dto.HashingStatsDTO;
+import com.julio.rampUp.entities.dto.MailStatsDTO;
+import com.julio.rampUp.sendEmail.PooledMailSender;
+import com.julio.rampUp.services.ArchiveService;
+import com.julio.rampUp.services.DashboardService;
+import com.julio.rampUp.services.PasswordHashingService;
+import com.julio.rampUp.services.UserDetailsCache;
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.annotation.JsonView;
+
+@RestController
+@RequestMapping(value = "/admin")
+public class AdminResource {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private CachingJwtTokenStore tokenStore;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private PooledMailSender mailSender;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    // /orders/info, /orders/sold and /productOfferings/quantity in one call
+    @GetMapping(value = "/dashboard")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<DashboardDTO> dashboard() {
+        return ResponseEntity.ok().body(dashboardService.dashboard());
+    }
+
+    // hits, misses and evictions of the login cache
+    @GetMapping(value = "/cache/users")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<CacheStatsDTO> userDetailsCacheStats() {
+        return ResponseEntity.ok().body(userDetailsCache.stats());
+    }
+
+    // hits, misses and evictions of the decoded tokens
+    @GetMapping(value = "/cache/tokens")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<CacheStatsDTO> tokenCacheStats() {
+        return ResponseEntity.ok().body(tokenStore.stats());
+    }
+
+    // busy and queued hashing threads, and the signups and logins turned away with a 503
+    @GetMapping(value = "/hashing")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<HashingStatsDTO> hashingStats() {
+        return ResponseEntity.ok().body(passwordHashingService.stats());
+    }
+
+    // emails sent and failed, SMTP connections opened and time spent per message
+    @GetMapping(value = "/mail")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<MailStatsDTO> mailStats() {
+        return ResponseEntity.ok().body(mailSender.stats());
+    }
+
+    // rows moved to the archive tables, deleted customers still waiting and the last run of the job
+    @GetMapping(value = "/archive")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<ArchiveStatsDTO> archiveStats() {
+        return ResponseEntity.ok().body(archiveService.stats());
+    }
+
+    // brings an archived customer back to the hot tables with its user, addresses, orders and tickets
+    @PostMapping(value = "/archive/customers/{id}/restore")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<Customer> restoreCustomer(@PathVariable Integer id) {
+        return ResponseEntity.ok().body(archiveService.restoreCustomer(id));
+    }
+
+}
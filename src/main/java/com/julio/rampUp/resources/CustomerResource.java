@@ -1,8 +1,10 @@
 package com.julio.rampUp.resources;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -23,9 +26,14 @@ import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.Order;
 import com.julio.rampUp.entities.Ticket;
 import com.julio.rampUp.entities.dto.AddressDTO;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.CustomerDTO;
+import com.julio.rampUp.entities.dto.CustomerHitDTO;
+import com.julio.rampUp.entities.dto.CustomerSummaryDTO;
+import com.julio.rampUp.entities.dto.ImportReportDTO;
 import com.julio.rampUp.services.AddressService;
 import com.julio.rampUp.services.CustomerService;
+import com.julio.rampUp.services.OnboardingService;
 import com.julio.rampUp.services.OrderService;
 import com.julio.rampUp.services.TicketService;
 import com.julio.rampUp.view.View;
@@ -47,25 +55,66 @@ public class CustomerResource {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private OnboardingService onboardingService;
+
     @GetMapping(value = "/page/{page}")
     @JsonView(View.Public.class)
     @PreAuthorize("hasAuthority('Admin')")
     public ResponseEntity<List<CustomerDTO>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
+    }
+
+    // autocomplete, the results come from the in-memory search index
+    @GetMapping(value = "/search")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<List<CustomerHitDTO>> search(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok().body(service.search(q, limit));
+    }
+
+    // bulk onboarding, one user + customer + address per line, the body is read as it arrives
+    @PostMapping(value = "/import/ndjson")
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<ImportReportDTO> importNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok().body(onboardingService.importNdjson(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/import/csv")
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<ImportReportDTO> importCsv(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok().body(onboardingService.importCsv(request.getInputStream()));
     }
 
     @GetMapping(value = "/home/{id}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Customer> findById(@PathVariable Integer id) {
         Customer customer = service.findById(id);
         return ResponseEntity.ok().body(customer);
     }
 
+    // counts, the newest orders and the default address instead of the whole customer graph
+    @GetMapping(value = "/home/{id}/summary")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
+    public ResponseEntity<CustomerSummaryDTO> summary(@PathVariable Integer id,
+            @RequestParam(defaultValue = "5") int orders) {
+        return ResponseEntity.ok().body(service.summary(id, orders));
+    }
+
     @DeleteMapping(value = "/{id}")
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Void> deleteById(@PathVariable Integer id) {
         service.deleteById(id);
         return ResponseEntity.noContent().build();
@@ -84,8 +133,7 @@ public class CustomerResource {
 
     @PatchMapping(value = "/{id}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Customer> update(@PathVariable Integer id, @RequestBody Customer customer) {
         customer = service.update(id, customer);
         return ResponseEntity.ok().body(customer);
@@ -93,24 +141,21 @@ public class CustomerResource {
 
     @GetMapping(value = "/{id}/addresses/page/{page}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<List<Address>> findAllAddressesByCustomerId(@PathVariable Integer id,
             @PathVariable int page) {
-        return ResponseEntity.ok().body(addressService.findAllAddressesByCustomerId(page, id));
+        return SliceResponse.ok(addressService.findAllAddressesByCustomerId(page, id));
     }
 
     @GetMapping(value = "/{id}/address/id/{address_id}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Address> findAddressById(@PathVariable Integer id, @PathVariable int address_id) {
         return ResponseEntity.ok().body(addressService.findById(address_id));
     }
 
     @DeleteMapping(value = "/{id}/addresses/{addressId}")
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Void> deleteAddressById(@PathVariable Integer id, @PathVariable Integer addressId) {
         addressService.deleteById(id, addressId);
         return ResponseEntity.noContent().build();
@@ -118,8 +163,7 @@ public class CustomerResource {
 
     @PostMapping(value = "/{id}/addresses/")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Address> insertAddress(@PathVariable Integer id, @Valid @RequestBody AddressDTO addressDTO) {
         Address address = addressService.insert(id, addressDTO);
         // to see in postman, the created path
@@ -130,8 +174,7 @@ public class CustomerResource {
 
     @PatchMapping(value = "/{id}/addresses/{addressId}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<Address> updateAddress(@PathVariable Integer id, @PathVariable Integer addressId,
             @Valid @RequestBody Address address) {
         address = addressService.update(id, addressId, address);
@@ -140,18 +183,16 @@ public class CustomerResource {
 
     @GetMapping(value = "/{id}/orders/page/{page}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<List<Order>> findAllOrdersByCustomerId(@PathVariable Integer id, @PathVariable int page) {
-        return ResponseEntity.ok().body(orderService.findAllOrdersByCustomerId(page, id));
+        return SliceResponse.ok(orderService.findAllOrdersByCustomerId(page, id));
     }
 
     @GetMapping(value = "/{id}/tickets/page/{page}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @customerRepository.findById(#id).get().getUser()"
-            + ".getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsCustomer(authentication, #id)")
     public ResponseEntity<List<Ticket>> findAllTicketsByCustomerId(@PathVariable Integer id, @PathVariable int page) {
-        return ResponseEntity.ok().body(ticketService.findAllTicketsByCustomerId(page, id));
+        return SliceResponse.ok(ticketService.findAllTicketsByCustomerId(page, id));
     }
 
 }
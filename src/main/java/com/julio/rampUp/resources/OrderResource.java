@@ -1,11 +1,15 @@
 package com.julio.rampUp.resources;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,15 +19,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.julio.rampUp.entities.ItemsSum;
 import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.RevenueRollup;
 import com.julio.rampUp.entities.Ticket;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.OrderDTO;
 import com.julio.rampUp.entities.dto.TicketDTO;
+import com.julio.rampUp.entities.enums.RollupGranularity;
+import com.julio.rampUp.services.OrderExportService;
 import com.julio.rampUp.services.OrderService;
+import com.julio.rampUp.services.RevenueRollupService;
 import com.julio.rampUp.services.TicketService;
 import com.julio.rampUp.view.View;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -38,17 +49,31 @@ public class OrderResource {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
     @GetMapping(value = "/page/{page}")
     @JsonView(View.Public.class)
     @PreAuthorize("hasAuthority('Admin')")
     public ResponseEntity<List<OrderDTO>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "6") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
     }
 
     @GetMapping(value = "/{id}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @orderRepository.findById(#id).get().getCustomer"
-            + ".getUser().getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsOrder(authentication, #id)")
     public ResponseEntity<Order> findById(@PathVariable Integer id) {
         Order order = service.findById(id);
         return ResponseEntity.ok().body(order);
@@ -81,8 +106,7 @@ public class OrderResource {
 
     @PostMapping(value = "/{id}/ticket")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @orderRepository.findById(#id).get().getCustomer"
-            + ".getUser().getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.ownsOrder(authentication, #id)")
     public ResponseEntity<Ticket> createTicket(@PathVariable Integer id, @Valid @RequestBody TicketDTO ticketDTO) {
         Ticket ticket = ticketService.insert(ticketDTO, id);
         // to see in postman, the created path
@@ -104,4 +128,31 @@ public class OrderResource {
         return ResponseEntity.ok().body(service.quantitySoldItems());
     }
 
+    // revenue and units per product in the hours or days of [from, to), read from the rollups
+    @GetMapping(value = "/stats")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<List<RevenueRollup>> stats(@RequestParam(defaultValue = "Day") RollupGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Integer productId) {
+        return ResponseEntity.ok().body(revenueRollupService.findRange(granularity, from, to, productId));
+    }
+
+    // every order, written while it is read, off the request thread
+    @GetMapping(value = "/export/ndjson")
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<StreamingResponseBody> exportNdjson() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> orderExportService.exportNdjson(out));
+    }
+
+    @GetMapping(value = "/export/csv")
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return ResponseEntity.ok().contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                .body(out -> orderExportService.exportCsv(out));
+    }
+
 }
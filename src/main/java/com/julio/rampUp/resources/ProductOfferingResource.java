@@ -1,7 +1,6 @@
 package com.julio.rampUp.resources;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
 
 import javax.validation.Valid;
@@ -16,10 +15,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.services.ProductOfferingService;
 import com.julio.rampUp.view.View;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -35,7 +36,16 @@ public class ProductOfferingResource {
     @JsonView(View.Public.class)
     @PreAuthorize("hasAuthority('Admin') || hasAuthority('Operator')")
     public ResponseEntity<List<ProductOffering>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin') || hasAuthority('Operator')")
+    public ResponseEntity<CursorPageDTO<ProductOffering>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "6") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
     }
 
     @GetMapping(value = "/{id}")
@@ -66,10 +76,7 @@ public class ProductOfferingResource {
     @GetMapping(value = "/quantity")
     @PreAuthorize("hasAuthority('Admin')")
     public ResponseEntity<List<Integer>> prodQuantity() {
-        List<Integer> prodInfo = new ArrayList<>();
-        prodInfo.add(service.prodQuantity());
-        prodInfo.add(service.productToSale());
-        return ResponseEntity.ok().body(prodInfo);
+        return ResponseEntity.ok().body(service.prodQuantity());
     }
 
     @PatchMapping(value = "/{id}")
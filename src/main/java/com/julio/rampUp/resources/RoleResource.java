@@ -12,10 +12,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.julio.rampUp.entities.Role;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.services.RoleService;
 import com.julio.rampUp.view.View;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -30,7 +32,15 @@ public class RoleResource {
     @GetMapping(value = "/page/{page}")
     @JsonView(View.Public.class)
     public ResponseEntity<List<Role>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    public ResponseEntity<CursorPageDTO<Role>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
     }
 
     @GetMapping(value = "/{id}")
@@ -0,0 +1,20 @@
+package com.julio.rampUp.resources;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+// the /page/{page} listings keep answering a plain list, whether there is a next page goes in a header
+public final class SliceResponse {
+
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+
+    private SliceResponse() {
+    }
+
+    public static <T> ResponseEntity<List<T>> ok(Slice<T> slice) {
+        return ResponseEntity.ok().header(HAS_NEXT_HEADER, String.valueOf(slice.hasNext())).body(slice.getContent());
+    }
+
+}
@@ -8,9 +8,11 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.julio.rampUp.entities.Ticket;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.services.TicketService;
 import com.julio.rampUp.view.View;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -25,7 +27,15 @@ public class TicketResource {
     @GetMapping(value = "/page/{page}")
     @JsonView(View.Public.class)
     public ResponseEntity<List<Ticket>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    public ResponseEntity<CursorPageDTO<Ticket>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "4") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
     }
 
     @GetMapping(value = "/{id}")
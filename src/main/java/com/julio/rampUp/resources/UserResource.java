@@ -15,11 +15,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.julio.rampUp.entities.Role;
 import com.julio.rampUp.entities.User;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.UserDTO;
 import com.julio.rampUp.entities.enums.Authorities;
 import com.julio.rampUp.services.UserService;
@@ -37,12 +39,21 @@ public class UserResource {
     @JsonView(View.Public.class)
     @PreAuthorize("hasAuthority('Admin')")
     public ResponseEntity<List<UserDTO>> findAll(@PathVariable int page) {
-        return ResponseEntity.ok().body(service.findAll(page));
+        return SliceResponse.ok(service.findAll(page));
+    }
+
+    // keyset (cursor) mode of /page/{page}, the next page is asked with ?after=<nextCursor>
+    @GetMapping(value = "/page")
+    @JsonView(View.Public.class)
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<CursorPageDTO<UserDTO>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "6") int limit) {
+        return ResponseEntity.ok().body(service.findAll(after, limit));
     }
 
     @GetMapping(value = "/{id}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @userRepository.findById(#id).get().getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.isUser(authentication, #id)")
     public ResponseEntity<User> findById(@PathVariable Integer id) {
         return ResponseEntity.ok().body(service.findById(id));
     }
@@ -68,7 +79,7 @@ public class UserResource {
     }
 
     @DeleteMapping(value = "/{id}")
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @userRepository.findById(#id).get().getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.isUser(authentication, #id)")
     public ResponseEntity<Void> deleteById(@PathVariable Integer id) {
         service.deleteById(id);
         return ResponseEntity.noContent().build();
@@ -76,7 +87,7 @@ public class UserResource {
 
     @PatchMapping(value = "/{id}")
     @JsonView(View.Public.class)
-    @PreAuthorize("hasAuthority('Admin') || authentication.principal == @userRepository.findById(#id).get().getEmail()")
+    @PreAuthorize("hasAuthority('Admin') || @ownershipService.isUser(authentication, #id)")
     public ResponseEntity<User> update(@PathVariable Integer id, @Valid @RequestBody User user) {
         user = service.update(id, user);
         return ResponseEntity.ok().body(user);
@@ -15,7 +15,9 @@ import com.julio.rampUp.services.exceptions.AddressException;
 import com.julio.rampUp.services.exceptions.CustomerAlreadyExists;
 import com.julio.rampUp.services.exceptions.EmailDuplicateException;
 import com.julio.rampUp.services.exceptions.EmailNullException;
+import com.julio.rampUp.services.exceptions.HashingBusyException;
 import com.julio.rampUp.services.exceptions.IdNullException;
+import com.julio.rampUp.services.exceptions.InvalidCursorException;
 import com.julio.rampUp.services.exceptions.InvalidEmailException;
 import com.julio.rampUp.services.exceptions.NoValueForIdException;
 import com.julio.rampUp.services.exceptions.NotForSaleException;
@@ -135,6 +137,24 @@ public class ResourceExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> invalidCursorException(InvalidCursorException e, HttpServletRequest request) {
+        String error = "Invalid cursor";
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError(Instant.now(), status.value(), error, e.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(HashingBusyException.class)
+    public ResponseEntity<StandardError> hashingBusyException(HashingBusyException e, HttpServletRequest request) {
+        String error = "Service busy";
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        StandardError err = new StandardError(Instant.now(), status.value(), error, e.getMessage(),
+                request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<StandardError> methodArgumentNotValidException(MethodArgumentNotValidException e,
             HttpServletRequest request) {
@@ -1,24 +1,24 @@
 package com.julio.rampUp.sendEmail;
 
+import java.time.Instant;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
+import com.julio.rampUp.entities.EmailOutbox;
+import com.julio.rampUp.repositories.EmailOutboxRepository;
+
+// writes the email to the outbox in the transaction of the caller, EmailOutboxWorker sends it once it commits
 @Component
 public class EmailHandler {
 
     @Autowired
-    private JavaMailSender javaMailSender;
+    private EmailOutboxRepository outboxRepository;
 
-    public void sendEmail(String to, String password) {
-        SimpleMailMessage simpleMail = new SimpleMailMessage();
-        simpleMail.setTo(to);
-        simpleMail.setSubject("Store account created");
-        simpleMail.setText("Thanks for creating a new account in our site! We are happy"
-                + " to have you with us!! Please, contact us if you are having any trouble. " + "\n Your password is: "
-                + password);
-        javaMailSender.send(simpleMail);
+    public void sendEmail(String to) {
+        String text = "Thanks for creating a new account in our site! We are happy"
+                + " to have you with us!! Please, contact us if you are having any trouble.";
+        outboxRepository.save(new EmailOutbox(to, "Store account created", text, Instant.now()));
     }
 
 }
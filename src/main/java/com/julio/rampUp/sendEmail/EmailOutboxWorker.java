@@ -0,0 +1,128 @@
+package com.julio.rampUp.sendEmail;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.julio.rampUp.entities.EmailOutbox;
+import com.julio.rampUp.entities.enums.OutboxStatus;
+import com.julio.rampUp.repositories.EmailOutboxRepository;
+
+// sends the emails of the outbox on a pool of its own, in batches that share an SMTP session. A failed send is tried
+// again later, waiting twice as long each time, and after the last attempt the email stays in the table as Dead
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private static final int BATCH_SIZE = 20;
+    // emails sent over one session by one thread of the pool
+    private static final int SESSION_BATCH_SIZE = 10;
+    // a claimed email is not picked again for this long, even if the worker died while sending it
+    private static final Duration LEASE = Duration.ofMinutes(2);
+    private static final Duration FIRST_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private PooledMailSender mailSender;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(BATCH_SIZE), new CustomizableThreadFactory("email-outbox-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    // claims the emails that are due and hands them to the pool, returns how many were claimed
+    @Scheduled(initialDelayString = "${email.outbox.poll-interval-ms:5000}",
+            fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public int drain() {
+        Instant now = Instant.now();
+        List<Long> claimed = new ArrayList<>();
+        for (EmailOutbox email : repository.findDue(OutboxStatus.Pending.getCode(), now,
+                PageRequest.of(0, BATCH_SIZE))) {
+            if (repository.claim(email.getId(), email.getNextAttemptAt(), now.plus(LEASE)) == 1)
+                claimed.add(email.getId()); // otherwise claimed by another drain
+        }
+        for (int from = 0; from < claimed.size(); from += SESSION_BATCH_SIZE) {
+            List<Long> batch = claimed.subList(from, Math.min(from + SESSION_BATCH_SIZE, claimed.size()));
+            try {
+                executor.execute(() -> deliver(batch));
+            } catch (RejectedExecutionException e) {
+                break; // the pool is behind, the lease runs out and the emails are claimed again
+            }
+        }
+        return claimed.size();
+    }
+
+    public void deliver(List<Long> ids) {
+        List<EmailOutbox> emails = new ArrayList<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (EmailOutbox email : repository.findAllById(ids)) {
+            if (email.getStatus() != OutboxStatus.Pending)
+                continue;
+            try {
+                messages.add(mailSender.createMessage(email.getRecipient(), email.getSubject(), email.getBody()));
+                emails.add(email);
+            } catch (MessagingException e) { // an address that can not be parsed will never be sent
+                email.failed(e.getMessage(), null);
+                repository.save(email);
+            }
+        }
+        if (messages.isEmpty())
+            return;
+
+        List<Exception> errors = mailSender.send(messages);
+        for (int i = 0; i < emails.size(); i++) {
+            EmailOutbox email = emails.get(i);
+            if (errors.get(i) == null) {
+                email.sent(Instant.now());
+            } else {
+                failed(email, errors.get(i));
+            }
+        }
+        repository.saveAll(emails);
+    }
+
+    private void failed(EmailOutbox email, Exception error) {
+        Instant nextAttemptAt = email.getAttempts() + 1 >= maxAttempts ? null
+                : Instant.now().plus(backoff(email.getAttempts() + 1));
+        email.failed(error.getMessage(), nextAttemptAt);
+        if (nextAttemptAt == null)
+            logger.error("Email {} to {} dead after {} attempts: {}", email.getId(), email.getRecipient(),
+                    email.getAttempts(), error.getMessage());
+    }
+
+    // 30s, 1m, 2m, 4m... up to an hour
+    static Duration backoff(int attempts) {
+        Duration backoff = FIRST_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
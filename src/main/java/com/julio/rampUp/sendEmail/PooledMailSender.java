@@ -0,0 +1,178 @@
+package com.julio.rampUp.sendEmail;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.julio.rampUp.entities.dto.MailStatsDTO;
+
+// sends a batch of messages over one SMTP session. The connected, authenticated transports are kept for the next
+// batch, so the TLS handshake and the login happen once per connection instead of once per message. With
+// email.smtp.pooled=false every message opens its own connection, as JavaMailSender does
+@Component
+public class PooledMailSender {
+
+    private static final long MAX_IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final JavaMailSenderImpl javaMailSender;
+    private final boolean pooled;
+    private final BlockingQueue<PooledTransport> idle;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder sendingNanos = new LongAdder();
+
+    public PooledMailSender(JavaMailSenderImpl javaMailSender, @Value("${email.smtp.pooled:true}") boolean pooled,
+            @Value("${email.smtp.pool-size:2}") int poolSize) {
+        this.javaMailSender = javaMailSender;
+        this.pooled = pooled;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public MimeMessage createMessage(String to, String subject, String text) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(text);
+        return message;
+    }
+
+    // the error of every message, in the same order, null for the ones sent
+    public List<Exception> send(List<MimeMessage> messages) {
+        long start = System.nanoTime();
+        List<Exception> errors = pooled ? sendPooled(messages) : sendOneByOne(messages);
+        sendingNanos.add(System.nanoTime() - start);
+        batches.increment();
+        for (Exception error : errors) {
+            if (error == null)
+                sent.increment();
+            else
+                failed.increment();
+        }
+        return errors;
+    }
+
+    private List<Exception> sendOneByOne(List<MimeMessage> messages) {
+        List<Exception> errors = new ArrayList<>();
+        for (MimeMessage message : messages) {
+            connections.increment();
+            try {
+                javaMailSender.send(message);
+                errors.add(null);
+            } catch (RuntimeException e) {
+                errors.add(e);
+            }
+        }
+        return errors;
+    }
+
+    private List<Exception> sendPooled(List<MimeMessage> messages) {
+        List<Exception> errors = new ArrayList<>();
+        PooledTransport transport = null;
+        for (MimeMessage message : messages) {
+            try {
+                if (transport == null)
+                    transport = borrow();
+                message.setSentDate(new Date());
+                message.saveChanges();
+                transport.transport.sendMessage(message, message.getAllRecipients());
+                errors.add(null);
+            } catch (MessagingException | RuntimeException e) {
+                errors.add(e);
+                // a refused recipient leaves the session usable, a broken connection is replaced for the rest
+                if (transport != null && !transport.transport.isConnected()) {
+                    close(transport);
+                    transport = null;
+                }
+            }
+        }
+        if (transport != null)
+            giveBack(transport);
+        return errors;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null) {
+            // isConnected sends a NOOP, the server may have dropped an idle session
+            if (transport.transport.isConnected())
+                return transport;
+            close(transport);
+        }
+        String protocol = javaMailSender.getProtocol() != null ? javaMailSender.getProtocol()
+                : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport connected = javaMailSender.getSession().getTransport(protocol);
+        connected.connect(javaMailSender.getHost(), javaMailSender.getPort(), javaMailSender.getUsername(),
+                javaMailSender.getPassword());
+        connections.increment();
+        return new PooledTransport(connected);
+    }
+
+    // more transports than the pool holds are opened only when all are busy, those are closed here
+    private void giveBack(PooledTransport transport) {
+        transport.lastUsed = System.nanoTime();
+        if (!idle.offer(transport))
+            close(transport);
+    }
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void closeIdle() {
+        long now = System.nanoTime();
+        idle.removeIf(transport -> {
+            if (now - transport.lastUsed < MAX_IDLE_NANOS)
+                return false;
+            close(transport);
+            return true;
+        });
+    }
+
+    public MailStatsDTO stats() {
+        long messages = sent.sum() + failed.sum();
+        double seconds = sendingNanos.sum() / 1e9;
+        return new MailStatsDTO(pooled, sent.sum(), failed.sum(), batches.sum(), connections.sum(),
+                messages == 0 ? 0 : seconds * 1000 / messages, seconds == 0 ? 0 : messages / seconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport transport;
+        while ((transport = idle.poll()) != null)
+            close(transport);
+    }
+
+    private void close(PooledTransport transport) {
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            // already gone
+        }
+    }
+
+    private static class PooledTransport {
+        private final Transport transport;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+}
@@ -12,12 +12,14 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.dto.AddressDTO;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.repositories.AddressRepository;
 import com.julio.rampUp.repositories.CustomerRepository;
 import com.julio.rampUp.services.exceptions.AddressException;
@@ -35,10 +37,18 @@ public class AddressService {
     @Autowired
     private CustomerRepository customerRepository;
 
-    public List<AddressDTO> findAll(int page) {
+    public Slice<AddressDTO> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 10, sort);
-        return addressToDTO(repository.findAllByDeleted(pageable, false).toList());
+        return repository.findAllByDeleted(pageable, false).map(AddressDTO::new);
+    }
+
+    public CursorPageDTO<AddressDTO> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, 0);
+        List<Address> addresses = repository.findByDeletedAndIdGreaterThanOrderByIdAsc(false, lastId,
+                CursorPageDTO.pageable(limit));
+        CursorPageDTO<Address> page = CursorPageDTO.of(addresses, limit, Address::getId);
+        return new CursorPageDTO<>(addressToDTO(page.getContent()), page.getNextCursor());
     }
 
     private List<AddressDTO> addressToDTO(List<Address> addresses) {
@@ -56,10 +66,10 @@ public class AddressService {
         return obj.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
-    public List<Address> findAllAddressesByCustomerId(int page, Integer id) {
+    public Slice<Address> findAllAddressesByCustomerId(int page, Integer id) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 10, sort);
-        return repository.findAllAddressesByCustomerId(pageable, id).toList();
+        return repository.findAllAddressesByCustomerId(pageable, id);
     }
 
     public Address insert(Integer customerId, AddressDTO addressDTO) {
@@ -0,0 +1,407 @@
+package com.julio.rampUp.services;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.dto.ArchiveStatsDTO;
+import com.julio.rampUp.repositories.CustomerRepository;
+import com.julio.rampUp.services.exceptions.EmailDuplicateException;
+import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
+
+// moves the rows soft-deleted for longer than the retention window out of the hot tables, in batches of one
+// transaction each. A customer goes with everything that points to it (its deleted user, addresses and tickets),
+// so nothing left in the hot tables references an archived row. Orders are never archived, cancelled or not, they
+// are the sales history the counters and rollups are computed from. Users, addresses and roles deleted on their
+// own go once nothing references them. The archive tables mirror the columns of the hot ones, without constraints,
+// plus the instant the row was archived
+@Service
+public class ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveService.class);
+
+    private static final String CUSTOMERS = "customer_tb";
+    private static final String USERS = "user_tb";
+    private static final String USER_ROLES = "user_tb_roles";
+    private static final String ADDRESSES = "address_tb";
+    private static final String ORDERS = "order_tb";
+    private static final String ORDER_ITEMS = "order_item_tb";
+    private static final String TICKETS = "ticket_tb";
+    private static final String ROLES = "role_tb";
+
+    // hot table, and the archive column the restore looks rows up by
+    private static final Map<String, String> TABLES = new LinkedHashMap<>();
+    static {
+        TABLES.put(CUSTOMERS, "id");
+        TABLES.put(USERS, "customer_id");
+        TABLES.put(USER_ROLES, "user_id");
+        TABLES.put(ADDRESSES, "customer_id");
+        TABLES.put(ORDERS, "customer_id");
+        TABLES.put(ORDER_ITEMS, "order_id");
+        TABLES.put(TICKETS, "customer_id");
+        TABLES.put(ROLES, "id");
+    }
+
+    // a customer who placed orders stays with them, and one whose address is the delivery address of somebody
+    // else's order waits until that changes
+    private static final String ELIGIBLE_CUSTOMERS = "SELECT c.id FROM customer_tb c WHERE c.deleted = TRUE "
+            + "AND c.deleted_at < ? AND NOT EXISTS (SELECT 1 FROM order_tb o WHERE o.customer_id = c.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM order_tb o JOIN address_tb a ON a.id = o.delivery_address_id "
+            + "WHERE a.customer_id = c.id) ORDER BY c.id";
+    private static final String ELIGIBLE_USERS = "SELECT u.id FROM user_tb u WHERE u.deleted = TRUE "
+            + "AND u.deleted_at < ? AND u.customer_id IS NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM customer_tb c WHERE c.user_id = u.id) ORDER BY u.id";
+    private static final String ELIGIBLE_ADDRESSES = "SELECT a.id FROM address_tb a WHERE a.deleted = TRUE "
+            + "AND a.deleted_at < ? AND NOT EXISTS (SELECT 1 FROM order_tb o WHERE o.delivery_address_id = a.id) "
+            + "ORDER BY a.id";
+    private static final String ELIGIBLE_ROLES = "SELECT r.id FROM role_tb r WHERE r.deleted = TRUE "
+            + "AND r.deleted_at < ? AND NOT EXISTS (SELECT 1 FROM user_tb_roles ur WHERE ur.roles_id = r.id) "
+            + "ORDER BY r.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerSearchIndex searchIndex;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Value("${archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${archive.batch-size:100}")
+    private int batchSize;
+
+    @Value("${archive.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    private final Map<String, List<String>> columns = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder customers = new LongAdder();
+    private final LongAdder users = new LongAdder();
+    private final LongAdder addresses = new LongAdder();
+    private final LongAdder roles = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+    private volatile long pendingCustomers;
+    private volatile Instant lastRunAt;
+    private volatile long lastRunMillis;
+
+    // an archive table made before a column was added to its entity gets the column here, nullable, so the rows
+    // archived earlier keep a null in it
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTables() {
+        columns.clear();
+        for (Map.Entry<String, String> table : TABLES.entrySet()) {
+            String archive = archive(table.getKey());
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " AS SELECT * FROM " + table.getKey()
+                    + " WHERE 1 = 0");
+            Set<String> archived = columnTypes(archive).keySet();
+            for (Map.Entry<String, String> column : columnTypes(table.getKey()).entrySet()) {
+                if (!archived.contains(column.getKey()))
+                    jdbcTemplate.execute("ALTER TABLE " + archive + " ADD COLUMN IF NOT EXISTS " + column.getKey()
+                            + " " + column.getValue());
+            }
+            jdbcTemplate.execute("ALTER TABLE " + archive + " ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + archive + "_idx ON " + archive + " ("
+                    + table.getValue() + ")");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${archive.interval-ms:3600000}",
+            fixedDelayString = "${archive.interval-ms:3600000}")
+    public int archive() {
+        synchronized (lock) {
+            long start = System.nanoTime();
+            Instant now = Instant.now();
+            // the rows deleted before deleted_at existed start their retention window now
+            for (String table : List.of(CUSTOMERS, USERS, ADDRESSES, ROLES)) {
+                jdbcTemplate.update("UPDATE " + table + " SET deleted_at = ? WHERE deleted = TRUE "
+                        + "AND deleted_at IS NULL", Timestamp.from(now));
+            }
+
+            Timestamp cutoff = Timestamp.from(now.minus(retentionDays, ChronoUnit.DAYS));
+            int[] budget = { maxBatchesPerRun };
+            int moved = drain(ELIGIBLE_CUSTOMERS, cutoff, this::moveCustomers, customers, budget);
+            moved += drain(ELIGIBLE_USERS, cutoff, this::moveUsers, users, budget);
+            moved += drain(ELIGIBLE_ADDRESSES, cutoff, ids -> move(ADDRESSES, "id", ids), addresses, budget);
+            moved += drain(ELIGIBLE_ROLES, cutoff, ids -> move(ROLES, "id", ids), roles, budget);
+
+            pendingCustomers = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM customer_tb WHERE deleted = TRUE AND deleted_at < ?", Long.class, cutoff);
+            runs.increment();
+            lastRunAt = now;
+            lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+            if (moved > 0)
+                logger.info("Archived {} rows in {} ms, {} deleted customers still waiting", moved, lastRunMillis,
+                        pendingCustomers);
+            return moved;
+        }
+    }
+
+    // the customer and its user come back active, the rest of its rows as they were archived. The password and
+    // the customer type were already overwritten by the soft delete, they are set again through the usual updates
+    public Customer restoreCustomer(Integer id) {
+        List<String> emails;
+        synchronized (lock) {
+            emails = new TransactionTemplate(transactionManager).execute(status -> restore(id));
+        }
+        emails.forEach(emailFilter::put);
+        Customer customer = customerRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        searchIndex.put(customer);
+        restored.increment();
+        return customer;
+    }
+
+    public ArchiveStatsDTO stats() {
+        return new ArchiveStatsDTO(retentionDays, runs.sum(), batches.sum(), customers.sum(), users.sum(),
+                addresses.sum(), roles.sum(), rows.sum(), restored.sum(), pendingCustomers, lastRunAt,
+                lastRunMillis);
+    }
+
+    // batch after batch until there is nothing left to move or the run used up its batches
+    private int drain(String eligible, Timestamp cutoff, Function<List<Integer>, Integer> move, LongAdder counter,
+            int[] budget) {
+        int moved = 0;
+        while (budget[0] > 0) {
+            budget[0]--;
+            Integer[] batch = new Integer[1];
+            Integer batchRows = new TransactionTemplate(transactionManager).execute(status -> {
+                List<Integer> ids = jdbcTemplate.queryForList(
+                        eligible + " FETCH FIRST " + batchSize + " ROWS ONLY", Integer.class, cutoff);
+                batch[0] = ids.size();
+                return ids.isEmpty() ? 0 : move.apply(ids);
+            });
+            if (batch[0] == 0)
+                break;
+            counter.add(batch[0]);
+            batches.increment();
+            rows.add(batchRows);
+            moved += batchRows;
+            if (batch[0] < batchSize)
+                break;
+        }
+        return moved;
+    }
+
+    // copies first, while every link can still be followed, then deletes children before their parents
+    private int moveCustomers(List<Integer> ids) {
+        String in = placeholders(ids.size());
+        Object[] args = ids.toArray();
+        Object[] twice = concat(args, args);
+        List<Integer> userIds = jdbcTemplate.queryForList("SELECT id FROM user_tb WHERE deleted = TRUE AND "
+                + "(customer_id IN (" + in + ") OR id IN (SELECT user_id FROM customer_tb WHERE id IN (" + in + ")))",
+                Integer.class, twice);
+        String byCustomer = "customer_id IN (" + in + ")";
+
+        int moved = copy(CUSTOMERS, "id IN (" + in + ")", args);
+        moved += copy(ADDRESSES, byCustomer, args);
+        moved += copy(TICKETS, byCustomer, args);
+        if (!userIds.isEmpty())
+            moved += copyUsers(userIds);
+
+        delete(TICKETS, byCustomer, args);
+        delete(ADDRESSES, byCustomer, args);
+        // a user still active keeps living without its customer
+        jdbcTemplate.update("UPDATE user_tb SET customer_id = NULL WHERE " + byCustomer, args);
+        delete(CUSTOMERS, "id IN (" + in + ")", args);
+        if (!userIds.isEmpty())
+            deleteUsers(userIds);
+        return moved;
+    }
+
+    private int moveUsers(List<Integer> ids) {
+        int moved = copyUsers(ids);
+        deleteUsers(ids);
+        return moved;
+    }
+
+    private int copyUsers(List<Integer> ids) {
+        String in = placeholders(ids.size());
+        Object[] args = ids.toArray();
+        return copy(USERS, "id IN (" + in + ")", args) + copy(USER_ROLES, "user_id IN (" + in + ")", args);
+    }
+
+    private void deleteUsers(List<Integer> ids) {
+        String in = placeholders(ids.size());
+        Object[] args = ids.toArray();
+        delete(USER_ROLES, "user_id IN (" + in + ")", args);
+        delete(USERS, "id IN (" + in + ")", args);
+    }
+
+    private int move(String table, String column, List<Integer> ids) {
+        String where = column + " IN (" + placeholders(ids.size()) + ")";
+        int moved = copy(table, where, ids.toArray());
+        delete(table, where, ids.toArray());
+        return moved;
+    }
+
+    private List<String> restore(Integer id) {
+        Integer archived = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_archive_tb WHERE id = ?",
+                Integer.class, id);
+        if (archived == 0)
+            throw new ResourceNotFoundException(id);
+        List<Integer> userIds = jdbcTemplate.queryForList("SELECT id FROM user_archive_tb WHERE customer_id = ? "
+                + "OR id = (SELECT user_id FROM customer_archive_tb WHERE id = ?)", Integer.class, id, id);
+        String users = userIds.isEmpty() ? "NULL" : placeholders(userIds.size());
+        Object[] userArgs = userIds.toArray();
+        List<String> emails = userIds.isEmpty() ? Collections.emptyList()
+                : jdbcTemplate.queryForList("SELECT email FROM user_archive_tb WHERE id IN (" + users + ")",
+                        String.class, userArgs);
+        if (!emails.isEmpty()) {
+            Integer taken = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_tb WHERE deleted = FALSE AND "
+                    + "email IN (" + placeholders(emails.size()) + ")", Integer.class, emails.toArray());
+            if (taken > 0)
+                throw new EmailDuplicateException();
+        }
+
+        // parents before children, the user <-> customer links are set once both sides are back
+        String roles = "id IN (SELECT roles_id FROM user_roles_archive_tb WHERE user_id IN (" + users + "))";
+        List<Integer> roleIds = jdbcTemplate.queryForList("SELECT id FROM role_archive_tb WHERE " + roles,
+                Integer.class, userArgs);
+        String restoredRoles = roleIds.isEmpty() ? "id IS NULL" : "id IN (" + placeholders(roleIds.size()) + ")";
+        copyBack(ROLES, restoredRoles, Map.of(), roleIds.toArray());
+        copyBack(CUSTOMERS, "id = ?", Map.of("deleted", "FALSE", "deleted_at", "NULL", "customer_status",
+                "'Active Customer'", "user_id", "NULL"), id);
+        copyBack(USERS, "id IN (" + users + ")",
+                Map.of("deleted", "FALSE", "deleted_at", "NULL", "customer_id", "NULL"), userArgs);
+        copyBack(USER_ROLES, "user_id IN (" + users + ")", Map.of(), userArgs);
+        String archivedUser = "(SELECT user_id FROM customer_archive_tb WHERE id = ?)";
+        jdbcTemplate.update("UPDATE customer_tb SET user_id = " + archivedUser + " WHERE id = ? "
+                + "AND EXISTS (SELECT 1 FROM user_tb WHERE id = " + archivedUser + ")", id, id, id);
+        jdbcTemplate.update("UPDATE user_tb SET customer_id = ? WHERE customer_id IS NULL AND id = " + archivedUser,
+                id, id);
+        // orders are no longer archived, those archived by earlier runs come back with their customer
+        String orderIds = "SELECT id FROM order_archive_tb WHERE customer_id = ?";
+        copyBack(ADDRESSES, "customer_id = ?", Map.of(), id);
+        copyBack(ORDERS, "customer_id = ?", Map.of(), id);
+        copyBack(ORDER_ITEMS, "order_id IN (" + orderIds + ")", Map.of(), id);
+        copyBack(TICKETS, "customer_id = ? OR order_id IN (" + orderIds + ")", Map.of(), id, id);
+
+        deleteArchived(TICKETS, "customer_id = ? OR order_id IN (" + orderIds + ")", id, id);
+        deleteArchived(ORDER_ITEMS, "order_id IN (" + orderIds + ")", id);
+        deleteArchived(ORDERS, "customer_id = ?", id);
+        deleteArchived(ADDRESSES, "customer_id = ?", id);
+        deleteArchived(USER_ROLES, "user_id IN (" + users + ")", userArgs);
+        deleteArchived(ROLES, restoredRoles, roleIds.toArray());
+        deleteArchived(USERS, "id IN (" + users + ")", userArgs);
+        deleteArchived(CUSTOMERS, "id = ?", id);
+        return emails;
+    }
+
+    private int copy(String table, String where, Object... args) {
+        String columnList = String.join(", ", columns(table));
+        return jdbcTemplate.update("INSERT INTO " + archive(table) + " (" + columnList + ", archived_at) SELECT "
+                + columnList + ", ? FROM " + table + " WHERE " + where,
+                concat(new Object[] { Timestamp.from(Instant.now()) }, args));
+    }
+
+    // the overrides replace the archived value of a column with an SQL expression
+    private int copyBack(String table, String where, Map<String, String> overrides, Object... args) {
+        List<String> names = columns(table);
+        List<String> values = new ArrayList<>();
+        for (String name : names)
+            values.add(overrides.getOrDefault(name.toLowerCase(), name));
+        return jdbcTemplate.update("INSERT INTO " + table + " (" + String.join(", ", names) + ") SELECT "
+                + String.join(", ", values) + " FROM " + archive(table) + " WHERE " + where, args);
+    }
+
+    private void delete(String table, String where, Object... args) {
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE " + where, args);
+    }
+
+    private void deleteArchived(String table, String where, Object... args) {
+        jdbcTemplate.update("DELETE FROM " + archive(table) + " WHERE " + where, args);
+    }
+
+    // read from the database metadata once createTables made the archive tables match the hot ones
+    private List<String> columns(String table) {
+        return columns.computeIfAbsent(table, name -> new ArrayList<>(columnTypes(name).keySet()));
+    }
+
+    // column name and its SQL type, with the length or precision the type needs
+    private Map<String, String> columnTypes(String table) {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, String>>) c -> {
+            DatabaseMetaData metaData = c.getMetaData();
+            String stored = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase()
+                    : metaData.storesLowerCaseIdentifiers() ? table.toLowerCase() : table;
+            Map<String, String> types = new LinkedHashMap<>();
+            try (ResultSet result = metaData.getColumns(c.getCatalog(), c.getSchema(), stored, null)) {
+                while (result.next())
+                    types.putIfAbsent(result.getString("COLUMN_NAME"), sqlType(result));
+            }
+            return types;
+        });
+    }
+
+    private static String sqlType(ResultSet column) throws SQLException {
+        String type = column.getString("TYPE_NAME");
+        switch (column.getInt("DATA_TYPE")) {
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.BINARY:
+        case Types.VARBINARY:
+            return type + "(" + column.getInt("COLUMN_SIZE") + ")";
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            return type + "(" + column.getInt("COLUMN_SIZE") + ", " + column.getInt("DECIMAL_DIGITS") + ")";
+        default:
+            return type;
+        }
+    }
+
+    private static String archive(String table) {
+        return table.equals(USER_ROLES) ? "user_roles_archive_tb" : table.replace("_tb", "_archive_tb");
+    }
+
+    private static String placeholders(int size) {
+        return String.join(", ", Collections.nCopies(size, "?"));
+    }
+
+    private static Object[] concat(Object[] first, Object[] second) {
+        Object[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.julio.rampUp.services;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// a single value kept for a short time, for the dashboard queries polled by the front end
+public class CachedValue<T> {
+
+    private final long ttlNanos;
+
+    private volatile Entry<T> entry;
+
+    public CachedValue(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public T get(Supplier<T> loader) {
+        Entry<T> current = entry;
+        if (current != null && System.nanoTime() - current.loadedAt < ttlNanos)
+            return current.value;
+        T value = loader.get();
+        entry = new Entry<>(value, System.nanoTime());
+        return value;
+    }
+
+    // inside a transaction the value is dropped only once it commits, so a read made before the commit can not
+    // cache the old value again
+    public void invalidate() {
+        AfterCommit.run(() -> entry = null);
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long loadedAt;
+
+        private Entry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+}
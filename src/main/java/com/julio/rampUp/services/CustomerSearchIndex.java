@@ -0,0 +1,346 @@
+package com.julio.rampUp.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.dto.CustomerHitDTO;
+import com.julio.rampUp.repositories.CustomerRepository;
+
+// the customers by name and document number, in memory. The words of the names are kept sorted for the prefix
+// lookups, and every word is also stored without each one of its letters so a word one typo away is found with a
+// handful of map lookups (a deletion index). It is loaded once the application is ready and kept up to date by
+// CustomerService; searches never touch the database
+@Component
+public class CustomerSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    // shorter words match exactly or by prefix only, a typo in them matches too many names
+    private static final int MIN_TYPO_LENGTH = 4;
+    // candidates checked against the other words of the query before giving up on a search
+    private static final int MAX_SCANNED = 10_000;
+    private static final Pattern NOT_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<Integer, Entry> customers = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Word> words = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Set<Word>> deletions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, int[]> documents = new ConcurrentHashMap<>();
+
+    // the ids CustomerService wrote while the load runs, null the rest of the time
+    private Set<Integer> writtenDuringLoad;
+
+    // the requests are already served, so a customer can be written while its row is on its way. A committed
+    // write is newer than any row the load reads afterwards, so the load skips the customers written meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            writtenDuringLoad = new HashSet<>();
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = customerRepository.streamSearchRows()) {
+                    rows.forEach(row -> putLoaded((Integer) row[0], (String) row[1], (Integer) row[2]));
+                }
+            });
+        } finally {
+            synchronized (this) {
+                writtenDuringLoad = null;
+            }
+        }
+        logger.info("Customer search index loaded with {} customers and {} words in {} ms", customers.size(),
+                words.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        return customers.size();
+    }
+
+    // exact matches of the document number first, then the names: every word of the query has to match a word of
+    // the name, the last one as a prefix, and names matching without typos come before the others
+    public List<CustomerHitDTO> search(String query, int limit) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        String trimmed = query == null ? "" : query.trim();
+        if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit) && trimmed.length() < 10) {
+            int[] byDocument = documents.get(Integer.valueOf(trimmed));
+            if (byDocument != null) {
+                for (int id : byDocument) {
+                    if (ids.size() < limit)
+                        ids.add(id);
+                }
+            }
+        }
+
+        String[] terms = tokens(trimmed);
+        if (terms.length > 0 && ids.size() < limit) {
+            List<Set<Word>> matches = new ArrayList<>();
+            for (int i = 0; i < terms.length; i++)
+                matches.add(matches(terms[i], i == terms.length - 1));
+            collect(matches, ids, limit);
+        }
+
+        List<CustomerHitDTO> hits = new ArrayList<>();
+        for (Integer id : ids) {
+            Entry entry = customers.get(id);
+            if (entry != null)
+                hits.add(new CustomerHitDTO(id, entry.name, entry.documentNumber));
+        }
+        return hits;
+    }
+
+    public void put(Customer customer) {
+        Integer id = customer.getId();
+        String name = customer.getCustomerName();
+        Integer documentNumber = customer.getDocumentNumber();
+        AfterCommit.run(() -> written(id, () -> put(id, name, documentNumber)));
+    }
+
+    public void remove(Integer id) {
+        AfterCommit.run(() -> written(id, () -> removeNow(id)));
+    }
+
+    private synchronized void written(Integer id, Runnable change) {
+        if (writtenDuringLoad != null)
+            writtenDuringLoad.add(id);
+        change.run();
+    }
+
+    private synchronized void putLoaded(Integer id, String name, Integer documentNumber) {
+        if (!writtenDuringLoad.contains(id))
+            put(id, name, documentNumber);
+    }
+
+    // the writes are rare and serialized, the searches read the concurrent maps without locking
+    synchronized void put(Integer id, String name, Integer documentNumber) {
+        removeNow(id);
+        Entry entry = new Entry(name, documentNumber);
+        Set<Word> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String token : tokens(name)) {
+            Word word = words.computeIfAbsent(token, this::newWord);
+            if (seen.add(word)) {
+                word.ids.add(id);
+                entry.words.add(word);
+            }
+        }
+        customers.put(id, entry);
+        if (documentNumber != null)
+            documents.merge(documentNumber, new int[] { id }, CustomerSearchIndex::concat);
+    }
+
+    private synchronized void removeNow(Integer id) {
+        Entry entry = customers.remove(id);
+        if (entry == null)
+            return;
+        // an emptied word leaves both indexes, the next customer with it gets a new one
+        for (Word word : entry.words) {
+            word.ids.remove(id);
+            if (word.ids.isEmpty()) {
+                words.remove(word.text, word);
+                forgetDeletions(word);
+            }
+        }
+        if (entry.documentNumber != null)
+            documents.computeIfPresent(entry.documentNumber, (document, ids) -> without(ids, id));
+    }
+
+    private Word newWord(String text) {
+        Word word = new Word(text);
+        if (text.length() >= MIN_TYPO_LENGTH) {
+            for (String deletion : deletions(text))
+                deletions.computeIfAbsent(deletion, key -> ConcurrentHashMap.newKeySet()).add(word);
+        }
+        return word;
+    }
+
+    private void forgetDeletions(Word word) {
+        if (word.text.length() < MIN_TYPO_LENGTH)
+            return;
+        for (String deletion : deletions(word.text)) {
+            deletions.computeIfPresent(deletion, (key, candidates) -> {
+                candidates.remove(word);
+                return candidates.isEmpty() ? null : candidates;
+            });
+        }
+    }
+
+    // the words a query term stands for, best first: the same word, the words it is a prefix of, then the words
+    // one typo away from it
+    private Set<Word> matches(String term, boolean prefix) {
+        Set<Word> matches = new LinkedHashSet<>();
+        Word exact = words.get(term);
+        if (exact != null)
+            matches.add(exact);
+        if (prefix) {
+            NavigableMap<String, Word> longer = words.subMap(term, false, term + Character.MAX_VALUE, false);
+            matches.addAll(longer.values());
+        }
+        if (term.length() >= MIN_TYPO_LENGTH) {
+            Set<Word> typos = new LinkedHashSet<>();
+            addTypos(term, term, typos);
+            for (String deletion : deletions(term)) {
+                addTypos(deletion, term, typos);
+                Word shorter = words.get(deletion);
+                if (shorter != null)
+                    typos.add(shorter);
+            }
+            matches.addAll(typos);
+        }
+        matches.removeIf(word -> word.ids.isEmpty());
+        return matches;
+    }
+
+    private void addTypos(String deletion, String term, Set<Word> typos) {
+        Set<Word> candidates = deletions.get(deletion);
+        if (candidates == null)
+            return;
+        for (Word word : candidates) {
+            if (oneEditAway(term, word.text))
+                typos.add(word);
+        }
+    }
+
+    // the term with the fewest candidates drives the search, the others are checked on each candidate
+    private void collect(List<Set<Word>> matches, Set<Integer> ids, int limit) {
+        int driver = 0;
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < matches.size(); i++) {
+            long candidates = 0;
+            for (Word word : matches.get(i))
+                candidates += word.ids.size();
+            if (candidates < fewest) {
+                fewest = candidates;
+                driver = i;
+            }
+        }
+
+        int scanned = 0;
+        for (Word word : matches.get(driver)) {
+            for (Integer id : word.ids) {
+                if (ids.size() >= limit || scanned++ >= MAX_SCANNED)
+                    return;
+                Entry entry = customers.get(id);
+                if (entry != null && matchesAll(entry, matches, driver))
+                    ids.add(id);
+            }
+        }
+    }
+
+    private boolean matchesAll(Entry entry, List<Set<Word>> matches, int driver) {
+        for (int i = 0; i < matches.size(); i++) {
+            if (i == driver)
+                continue;
+            boolean found = false;
+            for (Word word : entry.words) {
+                if (matches.get(i).contains(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found)
+                return false;
+        }
+        return true;
+    }
+
+    static String[] tokens(String text) {
+        if (text == null)
+            return new String[0];
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase();
+        return NOT_ALPHANUMERIC.splitAsStream(normalized).filter(token -> !token.isEmpty()).toArray(String[]::new);
+    }
+
+    private static List<String> deletions(String text) {
+        List<String> deletions = new ArrayList<>(text.length());
+        for (int i = 0; i < text.length(); i++)
+            deletions.add(text.substring(0, i) + text.substring(i + 1));
+        return deletions;
+    }
+
+    // one insertion, deletion, substitution or swap of two neighbouring letters
+    static boolean oneEditAway(String a, String b) {
+        if (a.equals(b))
+            return false;
+        if (Math.abs(a.length() - b.length()) > 1)
+            return false;
+        if (a.length() > b.length())
+            return oneEditAway(b, a);
+        int i = 0;
+        while (i < a.length() && a.charAt(i) == b.charAt(i))
+            i++;
+        if (a.length() < b.length())
+            return a.regionMatches(i, b, i + 1, a.length() - i);
+        if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1))
+            return true;
+        return i + 1 < a.length() && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+    }
+
+    private static int[] concat(int[] ids, int[] more) {
+        int[] all = new int[ids.length + more.length];
+        System.arraycopy(ids, 0, all, 0, ids.length);
+        System.arraycopy(more, 0, all, ids.length, more.length);
+        return all;
+    }
+
+    private static int[] without(int[] ids, int id) {
+        int[] rest = new int[ids.length];
+        int size = 0;
+        for (int other : ids) {
+            if (other != id)
+                rest[size++] = other;
+        }
+        return size == 0 ? null : Arrays.copyOf(rest, size);
+    }
+
+    private static class Word {
+        private final String text;
+        private final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        private Word(String text) {
+            this.text = text;
+        }
+    }
+
+    private static class Entry {
+        private final String name;
+        private final Integer documentNumber;
+        private final List<Word> words = new ArrayList<>(3);
+
+        private Entry(String name, Integer documentNumber) {
+            this.name = name;
+            this.documentNumber = documentNumber;
+        }
+    }
+
+}
@@ -12,15 +12,25 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.Order;
 import com.julio.rampUp.entities.User;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.CustomerDTO;
+import com.julio.rampUp.entities.dto.CustomerHitDTO;
+import com.julio.rampUp.entities.dto.CustomerSummaryDTO;
+import com.julio.rampUp.entities.projections.AddressSummary;
+import com.julio.rampUp.entities.projections.CustomerSummary;
+import com.julio.rampUp.entities.projections.OrderSummary;
+import com.julio.rampUp.repositories.AddressRepository;
 import com.julio.rampUp.repositories.CustomerRepository;
+import com.julio.rampUp.repositories.OrderRepository;
 import com.julio.rampUp.repositories.UserRepository;
 import com.julio.rampUp.services.exceptions.CustomerAlreadyExists;
 import com.julio.rampUp.services.exceptions.IdNullException;
@@ -37,10 +47,29 @@ public class CustomerService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<CustomerDTO> findAll(int page) {
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerSearchIndex searchIndex;
+
+    @Autowired
+    private OwnershipService ownershipService;
+
+    public Slice<CustomerDTO> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 10, sort);
-        return customerToDTO(repository.findAll(pageable).toList());
+        return repository.findAllBy(pageable).map(CustomerDTO::new);
+    }
+
+    public CursorPageDTO<CustomerDTO> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, 0);
+        List<Customer> customers = repository.findByIdGreaterThanOrderByIdAsc(lastId, CursorPageDTO.pageable(limit));
+        CursorPageDTO<Customer> page = CursorPageDTO.of(customers, limit, Customer::getId);
+        return new CursorPageDTO<>(customerToDTO(page.getContent()), page.getNextCursor());
     }
 
     private List<CustomerDTO> customerToDTO(List<Customer> customers) {
@@ -56,6 +85,21 @@ public class CustomerService {
         return obj.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
+    // prefix and typo-tolerant matching on the name, exact matching on the document number, from memory only
+    public List<CustomerHitDTO> search(String query, int limit) {
+        return searchIndex.search(query, CursorPageDTO.limit(limit));
+    }
+
+    // three queries reading a fixed number of columns, whatever the size of the customer's order history
+    @Transactional(readOnly = true)
+    public CustomerSummaryDTO summary(Integer id, int recentOrders) {
+        CustomerSummary customer = repository.findSummaryById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        List<AddressSummary> addresses = addressRepository.findDefaultByCustomerId(id, PageRequest.of(0, 1));
+        List<OrderSummary> orders = orderRepository.findRecentByCustomerId(id,
+                PageRequest.of(0, CursorPageDTO.limit(recentOrders)));
+        return new CustomerSummaryDTO(customer, addresses.isEmpty() ? null : addresses.get(0), orders);
+    }
+
     public Customer insert(CustomerDTO customerDTO) {
         try {
             Optional<User> userDB = userRepository.findById(customerDTO.getUserId());
@@ -75,7 +119,10 @@ public class CustomerService {
             repository.save(customer);
             userRepository.save(user);
 
-            return repository.save(customer);
+            customer = repository.save(customer);
+            searchIndex.put(customer);
+            ownershipService.evictAll();
+            return customer;
         } catch (NoSuchElementException e) {
             throw new NoValueForIdException("User", customerDTO.getUserId());
         } catch (InvalidDataAccessApiUsageException e) {
@@ -91,6 +138,8 @@ public class CustomerService {
     public void deleteById(Integer id) {
         try {
             repository.deleteById(id);
+            searchIndex.remove(id);
+            ownershipService.evictAll();
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
@@ -102,7 +151,11 @@ public class CustomerService {
         try {
             Customer updatedCustomer = repository.getReferenceById(id);
             updateData(updatedCustomer, newCustomer);
-            return repository.save(updatedCustomer);
+            updatedCustomer = repository.save(updatedCustomer);
+            searchIndex.put(updatedCustomer);
+            // the user, and so the owner of the customer and its orders, may have changed
+            ownershipService.evictAll();
+            return updatedCustomer;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
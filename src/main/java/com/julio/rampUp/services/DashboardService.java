@@ -0,0 +1,68 @@
+package com.julio.rampUp.services;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.julio.rampUp.entities.ItemsSum;
+import com.julio.rampUp.entities.dto.DashboardDTO;
+import com.julio.rampUp.services.exceptions.UnexpectedException;
+
+@Service
+public class DashboardService {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductOfferingService productOfferingService;
+
+    // bounded, so a burst of dashboard calls queues up instead of opening more connections than the pool has.
+    // When the queue is full the request thread runs the query itself
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(3, 3, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(30), new CustomizableThreadFactory("dashboard-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    // the three reads run at the same time, the answer takes as long as the slowest one
+    public DashboardDTO dashboard() {
+        CompletableFuture<List<Integer>> ordersInfo = submit(orderService::ordersInfo);
+        CompletableFuture<List<ItemsSum>> soldItems = submit(orderService::quantitySoldItems);
+        CompletableFuture<List<Integer>> productsInfo = submit(productOfferingService::prodQuantity);
+        try {
+            CompletableFuture.allOf(ordersInfo, soldItems, productsInfo).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return new DashboardDTO(ordersInfo.get(), soldItems.get(), productsInfo.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new UnexpectedException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException(e.getMessage());
+        } catch (TimeoutException e) {
+            throw new UnexpectedException("dashboard took more than " + TIMEOUT_SECONDS + " seconds");
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
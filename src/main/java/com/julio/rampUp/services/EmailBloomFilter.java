@@ -0,0 +1,97 @@
+package com.julio.rampUp.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.julio.rampUp.repositories.UserRepository;
+
+// the emails in use, as a Bloom filter: "no" is certain, "maybe" has to be checked in the database. An email is
+// never taken out, the email of a deleted or updated user only turns into a "maybe". Until the emails are loaded
+// every answer is "maybe"
+@Component
+public class EmailBloomFilter {
+
+    private static final int EXPECTED_EMAILS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private volatile boolean loaded;
+
+    public EmailBloomFilter() {
+        this(EXPECTED_EMAILS, FALSE_POSITIVE_RATE);
+    }
+
+    public EmailBloomFilter(int expectedEmails, double falsePositiveRate) {
+        long m = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+    }
+
+    // the emails inserted meanwhile go to the same bits, nothing is lost while this runs
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        userRepository.findAllEmails().forEach(this::put);
+        loaded = true;
+    }
+
+    public boolean mightContain(String email) {
+        if (!loaded)
+            return true;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private long index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    // FNV-1a over the bytes, then the murmur3 finalizer to spread the bits over both halves
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,381 @@
+package com.julio.rampUp.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.julio.rampUp.entities.Address;
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.Role;
+import com.julio.rampUp.entities.User;
+import com.julio.rampUp.entities.dto.AddressDTO;
+import com.julio.rampUp.entities.dto.ImportErrorDTO;
+import com.julio.rampUp.entities.dto.ImportReportDTO;
+import com.julio.rampUp.entities.dto.OnboardingRowDTO;
+import com.julio.rampUp.entities.enums.AddressType;
+import com.julio.rampUp.entities.enums.Authorities;
+import com.julio.rampUp.entities.enums.CustomerType;
+import com.julio.rampUp.repositories.AddressRepository;
+import com.julio.rampUp.repositories.CustomerRepository;
+import com.julio.rampUp.repositories.UserRepository;
+import com.julio.rampUp.sendEmail.EmailHandler;
+import com.julio.rampUp.services.exceptions.HashingBusyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// bulk onboarding: a user, its customer and an address per row, read as a stream and written in chunks. A chunk
+// is checked with one query, hashed on the hashing pool and inserted in one transaction; when that transaction
+// fails its rows are inserted one by one, so a bad row fails alone
+@Service
+public class OnboardingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String[] CSV_COLUMNS = { "email", "password", "customerName", "documentNumber",
+            "customerType", "creditScore", "street", "houseNumber", "neighborhood", "zipCode", "country",
+            "addressType" };
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private EmailHandler emailHandler;
+
+    @Autowired
+    private CustomerSearchIndex searchIndex;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${onboarding.chunk-size:500}")
+    private int chunkSize;
+
+    public ImportReportDTO importNdjson(InputStream in) throws IOException {
+        Import job = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank())
+                continue;
+            try {
+                job.add(lineNumber, objectMapper.readValue(line, OnboardingRowDTO.class));
+            } catch (JsonProcessingException e) {
+                job.unreadable(lineNumber, "Invalid json: " + e.getOriginalMessage());
+            }
+        }
+        return job.finish();
+    }
+
+    // the header names the columns, in any order, the address columns may be left empty. The values follow RFC
+    // 4180: a value with a comma, a quote or a line break is quoted, and its quotes are doubled
+    public ImportReportDTO importCsv(InputStream in) throws IOException {
+        Import job = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null)
+            return job.finish();
+        Map<String, Integer> columns = new HashMap<>();
+        String[] names = csvFields(header);
+        for (int i = 0; names != null && i < names.length; i++)
+            columns.put(names[i].trim(), i);
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank())
+                continue;
+            long firstLine = lineNumber;
+            try {
+                String[] values = csvFields(line);
+                // a quoted value goes on in the next lines
+                while (values == null) {
+                    String next = reader.readLine();
+                    if (next == null)
+                        throw new IllegalArgumentException("a quoted value is not closed");
+                    lineNumber++;
+                    line = line + "\n" + next;
+                    values = csvFields(line);
+                }
+                job.add(firstLine, fromCsv(values, columns));
+            } catch (IllegalArgumentException e) {
+                job.unreadable(firstLine, "Invalid csv row: " + e.getMessage());
+            }
+        }
+        return job.finish();
+    }
+
+    // null when the line ends inside a quoted value
+    static String[] csvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean closed = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                    closed = true;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                closed = false;
+            } else if (closed) {
+                throw new IllegalArgumentException("text after a quoted value");
+            } else if (c == '"') {
+                if (field.length() > 0)
+                    throw new IllegalArgumentException("a quote inside a value that is not quoted");
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted)
+            return null;
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private OnboardingRowDTO fromCsv(String[] values, Map<String, Integer> columns) {
+        OnboardingRowDTO row = new OnboardingRowDTO();
+        row.setEmail(csvValue(values, columns, CSV_COLUMNS[0]));
+        row.setPassword(csvValue(values, columns, CSV_COLUMNS[1]));
+        row.setCustomerName(csvValue(values, columns, CSV_COLUMNS[2]));
+        row.setDocumentNumber(csvInteger(values, columns, CSV_COLUMNS[3]));
+        String customerType = csvValue(values, columns, CSV_COLUMNS[4]);
+        if (customerType != null)
+            row.setCustomerType(CustomerType.valueOf(customerType));
+        row.setCreditScore(csvValue(values, columns, CSV_COLUMNS[5]));
+        if (csvValue(values, columns, CSV_COLUMNS[6]) != null) {
+            AddressDTO address = new AddressDTO();
+            address.setStreet(csvValue(values, columns, CSV_COLUMNS[6]));
+            address.setHouseNumber(csvInteger(values, columns, CSV_COLUMNS[7]));
+            address.setNeighborhood(csvValue(values, columns, CSV_COLUMNS[8]));
+            address.setZipCode(csvInteger(values, columns, CSV_COLUMNS[9]));
+            address.setCountry(csvValue(values, columns, CSV_COLUMNS[10]));
+            String addressType = csvValue(values, columns, CSV_COLUMNS[11]);
+            if (addressType != null)
+                address.setAddressType(AddressType.valueOf(addressType));
+            row.setAddress(address);
+        }
+        return row;
+    }
+
+    private String csvValue(String[] values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.length || values[index].isBlank())
+            return null;
+        return values[index].trim();
+    }
+
+    private Integer csvInteger(String[] values, Map<String, Integer> columns, String column) {
+        String value = csvValue(values, columns, column);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    // the state of one import, the rows wait here until a chunk is full
+    private class Import {
+        private final long start = System.nanoTime();
+        private final List<Long> lines = new ArrayList<>();
+        private final List<OnboardingRowDTO> rows = new ArrayList<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long failed;
+
+        private void add(long line, OnboardingRowDTO row) {
+            total++;
+            lines.add(line);
+            rows.add(row);
+            if (rows.size() >= chunkSize)
+                flush();
+        }
+
+        private void unreadable(long line, String message) {
+            total++;
+            fail(line, null, message);
+        }
+
+        private void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS)
+                errors.add(new ImportErrorDTO(line, email, message));
+        }
+
+        private ImportReportDTO finish() {
+            flush();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Onboarding import of {} rows: {} imported, {} failed in {} ms", total, imported, failed,
+                    elapsedMillis);
+            return new ImportReportDTO(total, imported, failed, elapsedMillis, errors);
+        }
+
+        private void flush() {
+            if (rows.isEmpty())
+                return;
+            List<Long> validLines = new ArrayList<>();
+            List<OnboardingRowDTO> valid = validate(validLines);
+            lines.clear();
+            rows.clear();
+            if (valid.isEmpty())
+                return;
+
+            List<String> passwords = new ArrayList<>();
+            valid.forEach(row -> passwords.add(row.getPassword()));
+            List<String> hashes;
+            try {
+                hashes = passwordHashingService.encodeAll(passwords);
+            } catch (HashingBusyException e) {
+                // the rows of this chunk fail, the chunks already imported stay and the next ones are tried
+                for (int i = 0; i < valid.size(); i++) {
+                    seenEmails.remove(valid.get(i).getEmail());
+                    fail(validLines.get(i), valid.get(i).getEmail(), e.getMessage());
+                }
+                return;
+            }
+            List<Customer> customers = new ArrayList<>();
+            for (int i = 0; i < valid.size(); i++)
+                customers.add(account(valid.get(i), hashes.get(i)));
+
+            try {
+                insert(customers);
+                imported += customers.size();
+            } catch (RuntimeException chunkError) {
+                for (int i = 0; i < customers.size(); i++) {
+                    try {
+                        insert(List.of(account(valid.get(i), hashes.get(i))));
+                        imported++;
+                    } catch (RuntimeException e) {
+                        fail(validLines.get(i), valid.get(i).getEmail(), rootMessage(e));
+                    }
+                }
+            }
+        }
+
+        // bean validation, the email format, and emails repeated in the file or already in use
+        private List<OnboardingRowDTO> validate(List<Long> validLines) {
+            Set<String> candidates = new HashSet<>();
+            for (OnboardingRowDTO row : rows) {
+                if (row.getEmail() != null && emailFilter.mightContain(row.getEmail()))
+                    candidates.add(row.getEmail());
+            }
+            Set<String> existing = candidates.isEmpty() ? Set.of()
+                    : new HashSet<>(userRepository.findExistingEmails(candidates));
+
+            List<OnboardingRowDTO> valid = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                OnboardingRowDTO row = rows.get(i);
+                String error = null;
+                Set<ConstraintViolation<OnboardingRowDTO>> violations = validator.validate(row);
+                if (!violations.isEmpty())
+                    error = violations.iterator().next().getMessage();
+                else if (!UserService.EMAIL_PATTERN.matcher(row.getEmail()).find())
+                    error = "This email is invalid";
+                else if (existing.contains(row.getEmail()) || !seenEmails.add(row.getEmail()))
+                    error = "This email already has a User";
+
+                if (error == null) {
+                    valid.add(row);
+                    validLines.add(lines.get(i));
+                } else {
+                    fail(lines.get(i), row.getEmail(), error);
+                }
+            }
+            return valid;
+        }
+    }
+
+    // the user, its customer and address, linked both ways like CustomerService.insert does
+    private Customer account(OnboardingRowDTO row, String hash) {
+        User user = new User(null, row.getEmail(), hash);
+        user.addRole(new Role(1, Authorities.Operator));
+        Customer customer = new Customer(null, row.getCustomerName(), row.getDocumentNumber(), row.getCustomerType(),
+                row.getCreditScore(), hash);
+        customer.setUser(user);
+        user.setCustomer(customer);
+        AddressDTO dto = row.getAddress();
+        if (dto != null) {
+            Address address = new Address(null, dto.getStreet(), dto.getHouseNumber(), dto.getNeighborhood(),
+                    dto.getZipCode(), dto.getCountry(), dto.getAddressType());
+            address.setCustomer(customer);
+            customer.addAddress(address);
+        }
+        return customer;
+    }
+
+    // one transaction, the inserts of each table go to the database in JDBC batches
+    private void insert(List<Customer> customers) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>();
+            List<Address> addresses = new ArrayList<>();
+            for (Customer customer : customers) {
+                users.add(customer.getUser());
+                addresses.addAll(customer.getAddresses());
+            }
+            userRepository.saveAll(users);
+            customerRepository.saveAll(customers);
+            addressRepository.saveAll(addresses);
+            for (User user : users)
+                emailHandler.sendEmail(user.getEmail());
+        });
+        for (Customer customer : customers) {
+            emailFilter.put(customer.getUser().getEmail());
+            searchIndex.put(customer);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null)
+            e = e.getCause();
+        return e.getMessage();
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.julio.rampUp.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.julio.rampUp.repositories.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// writes every order to the output while reading it from the database, so the memory used does not depend on the
+// number of orders
+@Service
+public class OrderExportService {
+
+    private static final String CSV_HEADER = "order_id,instant,deleted,customer_id,delivery_id,product_id,quantity,"
+            + "discount,total_price";
+
+    @Autowired
+    private OrderRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // one order per line, with its items
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = repository.streamExportRows();
+                JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Integer currentId = null;
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                Object[] row = it.next();
+                // the rows of an order are contiguous, they are sorted by order id
+                if (!row[0].equals(currentId)) {
+                    if (currentId != null)
+                        endOrder(json);
+                    currentId = (Integer) row[0];
+                    json.writeStartObject();
+                    json.writeNumberField("id", currentId);
+                    json.writeStringField("instant", String.valueOf(row[1]));
+                    json.writeBooleanField("deleted", Boolean.TRUE.equals(row[2]));
+                    json.writeObjectField("customerId", row[3]);
+                    json.writeObjectField("deliveryId", row[4]);
+                    json.writeArrayFieldStart("items");
+                }
+                if (row[5] != null) {
+                    json.writeStartObject();
+                    json.writeObjectField("productId", row[5]);
+                    json.writeObjectField("quantity", row[6]);
+                    json.writeObjectField("discount", row[7]);
+                    json.writeObjectField("totalPrice", row[8]);
+                    json.writeEndObject();
+                }
+            }
+            if (currentId != null)
+                endOrder(json);
+        }
+    }
+
+    // one line per item, an order without items gets one line with the item columns empty
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try (Stream<Object[]> rows = repository.streamExportRows()) {
+            for (Iterator<Object[]> it = rows.iterator(); it.hasNext();) {
+                Object[] row = it.next();
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0)
+                        writer.write(',');
+                    if (row[i] != null)
+                        writer.write(row[i].toString());
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private void endOrder(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+}
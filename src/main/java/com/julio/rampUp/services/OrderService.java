@@ -1,10 +1,15 @@
 package com.julio.rampUp.services;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
@@ -14,8 +19,11 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
@@ -23,8 +31,10 @@ import com.julio.rampUp.entities.ItemsSum;
 import com.julio.rampUp.entities.Order;
 import com.julio.rampUp.entities.OrderItem;
 import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.OrderDTO;
 import com.julio.rampUp.entities.dto.OrderItemDTO;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
 import com.julio.rampUp.repositories.AddressRepository;
 import com.julio.rampUp.repositories.CustomerRepository;
 import com.julio.rampUp.repositories.OrderItemRepository;
@@ -57,10 +67,42 @@ public class OrderService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
-    public List<OrderDTO> findAll(int page) {
+    @Autowired
+    private SalesCounter salesCounter;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    // polled by the admin dashboard, dropped on every order insert or cancellation
+    private final CachedValue<List<Integer>> ordersInfoCache = new CachedValue<>(Duration.ofSeconds(5));
+
+    public Slice<OrderDTO> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.DESC, "id");
         Pageable pageable = PageRequest.of(page, 6, sort);
-        return orderToDTO(repository.findAll(pageable).toList());
+        Slice<Integer> ids = repository.findAllIds(pageable);
+        return new SliceImpl<>(orderToDTO(findAllWithAssociations(ids.getContent())), pageable, ids.hasNext());
+    }
+
+    // newest first, like findAll(int)
+    public CursorPageDTO<OrderDTO> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, Integer.MAX_VALUE);
+        List<Integer> ids = repository.findIdsBefore(lastId, CursorPageDTO.pageable(limit));
+        CursorPageDTO<Integer> page = CursorPageDTO.of(ids, limit, id -> id);
+        return new CursorPageDTO<>(orderToDTO(findAllWithAssociations(page.getContent())), page.getNextCursor());
+    }
+
+    // loads the orders of a page with customer, address and items in a fixed number of queries, keeping the page
+    // order
+    private List<Order> findAllWithAssociations(List<Integer> ids) {
+        if (ids.isEmpty())
+            return new ArrayList<>();
+        Map<Integer, Order> ordersById = new HashMap<>();
+        for (Order order : repository.findAllWithCustomerByIdIn(ids)) {
+            ordersById.put(order.getId(), order);
+        }
+        productOfferingRepository.findAllByOrderIdIn(ids);
+        repository.findAllWithItemsByIdIn(ids);
+        return ids.stream().map(ordersById::get).collect(Collectors.toList());
     }
 
     private List<OrderDTO> orderToDTO(List<Order> orders) {
@@ -79,12 +121,14 @@ public class OrderService {
         return obj.orElseThrow(() -> new ResourceNotFoundException(id));
     }
 
-    public List<Order> findAllOrdersByCustomerId(int page, Integer id) {
+    public Slice<Order> findAllOrdersByCustomerId(int page, Integer id) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 2, sort);
-        return repository.findAllOrdersByCustomerId(pageable, id).toList();
+        Slice<Integer> ids = repository.findAllOrderIdsByCustomerId(pageable, id);
+        return new SliceImpl<>(findAllWithAssociations(ids.getContent()), pageable, ids.hasNext());
     }
 
+    @Transactional
     public Order insert(OrderDTO orderDTO) {
         try {
             Optional<Customer> customerDB = customerRepository.findById(orderDTO.getCustomerId());
@@ -93,36 +137,77 @@ public class OrderService {
             Optional<Address> addressDB = addressRepository.findById(orderDTO.getDeliveryId());
             Address address = addressDB.get();
 
-            Order order = builder(orderDTO, customer, address);
-            repository.save(order);
+            // resolve every product of the order in a single query and validate before writing anything
+            Map<Integer, ProductOffering> products = findProducts(orderDTO.getOrderItemDTO());
+
+            Order order = repository.save(builder(orderDTO, customer, address));
             customer.addOrder(order);
-            customerRepository.save(customer);
 
+            // the product is part of the id of an item, so the lines of the same product become one item
+            Map<Integer, OrderItem> orderItems = new LinkedHashMap<>();
             for (OrderItemDTO product : orderDTO.getOrderItemDTO()) {
-                Optional<ProductOffering> productDB = productOfferingRepository.findById(product.getProductId());
-                ProductOffering productOffering = productDB.get();
-                if (!productOffering.getSellIndicator()) {
-                    throw new NotForSaleException(productOffering.getId());
-                }
-                OrderItem orderItem = new OrderItem(order, productOffering, product.getDiscount(),
-                        product.getQuantity());
-                orderItemRepository.save(orderItem);
-
+                OrderItem orderItem = new OrderItem(order, products.get(product.getProductId()),
+                        product.getDiscount(), product.getQuantity());
+                orderItems.merge(product.getProductId(), orderItem, OrderService::mergeLines);
             }
+            orderItems.values().forEach(order::addOrderItem);
+            // the items are flushed on commit as one JDBC batch (hibernate.jdbc.batch_size)
+            orderItemRepository.saveAll(orderItems.values());
+            salesCounter.addOrder(order);
+            ordersInfoCache.invalidate();
 
-            return repository.save(order);
+            return order;
         } catch (NoSuchElementException e) {
             throw new NoValueForIdException("Customer", "Address", orderDTO.getCustomerId(), orderDTO.getDeliveryId());
         } catch (InvalidDataAccessApiUsageException e) {
             throw new IdNullException("Customer or Address");
+        } catch (NoValueForIdException | NotForSaleException e) {
+            throw e;
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage());
         }
     }
 
+    // the quantities and the totals add up, each line keeps the price of its own discount. The merged discount is
+    // weighted by quantity, so unit price * quantity * (1 - discount) still gives the total
+    private static OrderItem mergeLines(OrderItem first, OrderItem second) {
+        int quantity = first.getQuantity() + second.getQuantity();
+        if (quantity != 0)
+            first.setDiscount((first.getDiscount() * first.getQuantity() + second.getDiscount() * second.getQuantity())
+                    / quantity);
+        first.setQuantity(quantity);
+        first.setTotalPrice(first.getTotalPrice() + second.getTotalPrice());
+        return first;
+    }
+
+    private Map<Integer, ProductOffering> findProducts(List<OrderItemDTO> orderItemsDTO) {
+        Set<Integer> productIds = orderItemsDTO.stream().map(OrderItemDTO::getProductId).collect(Collectors.toSet());
+        Map<Integer, ProductOffering> products = new HashMap<>();
+        if (productIds.isEmpty())
+            return products;
+        for (ProductOffering productOffering : productOfferingRepository.findAllById(productIds)) {
+            products.put(productOffering.getId(), productOffering);
+        }
+        for (Integer productId : productIds) {
+            ProductOffering productOffering = products.get(productId);
+            if (productOffering == null)
+                throw new NoValueForIdException("Product Offering", productId);
+            if (!productOffering.getSellIndicator())
+                throw new NotForSaleException(productId);
+        }
+        return products;
+    }
+
+    @Transactional
     public void deleteById(Integer id) {
         try {
+            Optional<Order> order = repository.findById(id);
+            if (order.isPresent() && !order.get().getDeleted()) {
+                salesCounter.removeOrder(order.get());
+                revenueRollupService.removeOrder(order.get());
+            }
             repository.deleteById(id);
+            ordersInfoCache.invalidate();
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
@@ -142,29 +227,20 @@ public class OrderService {
         }
     }
 
+    // orders not cancelled and cancelled orders
     public List<Integer> ordersInfo() {
-        List<Integer> orderInfo = new ArrayList<>();
-        orderInfo.add(repository.quantityOfOrders());
-        orderInfo.add(repository.quantityOfCancelledOrders());
-        return orderInfo;
+        return ordersInfoCache.get(() -> {
+            StatusCountDTO count = repository.countCancelled();
+            return List.of((int) count.getNotFlagged(), (int) count.getFlagged());
+        });
     }
 
+    // read from the sales counters, only the product names come from the database
     public List<ItemsSum> quantitySoldItems() {
-        List<Object[]> soldItemObject = orderItemRepository.quantitySoldItems();
         List<ItemsSum> soldItems = new ArrayList<>();
-        if (soldItemObject != null && !soldItemObject.isEmpty()) {
-            for (Object[] soldItem : soldItemObject) {
-                soldItems.add(new ItemsSum(Integer.parseInt(soldItem[0].toString()),
-                        Integer.parseInt(soldItem[2].toString()), soldItem[1].toString()));
-            }
-        }
-        List<Object[]> notSoldItemObject = orderItemRepository
-                .quantityNotSoldItems(soldItems.stream().map(item -> item.getProd_id()).collect(Collectors.toList()));
-        if (notSoldItemObject != null && !notSoldItemObject.isEmpty()) {
-            for (Object[] notSoldItem : notSoldItemObject) {
-                soldItems.add(new ItemsSum(Integer.parseInt(notSoldItem[0].toString()),
-                        Integer.parseInt(notSoldItem[2].toString()), notSoldItem[1].toString()));
-            }
+        for (ProductOffering productOffering : productOfferingRepository.findAll(Sort.by("id"))) {
+            soldItems.add(new ItemsSum(productOffering.getId(), (int) salesCounter.quantitySold(productOffering.getId()),
+                    productOffering.getProductName()));
         }
         return soldItems;
     }
@@ -0,0 +1,122 @@
+package com.julio.rampUp.services;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.julio.rampUp.config.UserClaimsTokenEnhancer;
+import com.julio.rampUp.entities.dto.CacheStatsDTO;
+import com.julio.rampUp.repositories.CustomerRepository;
+import com.julio.rampUp.repositories.OrderRepository;
+import com.julio.rampUp.repositories.UserRepository;
+
+// answers the "is it yours" part of the @PreAuthorize expressions. The user id and customer id claims of the token
+// are compared in memory, tokens without them fall back to reading the email of the owner
+@Service
+public class OwnershipService {
+
+    private static final String REQUEST_MEMO = OwnershipService.class.getName() + ".memo";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // owner email by "kind:id", evicted when the email of a user or the user of a customer changes. A missing owner
+    // is not kept, the id may be created a moment later
+    private final TtlCache<String, String> owners = new TtlCache<>(10_000, Duration.ofSeconds(30));
+
+    // customer id by order id, it never changes. A missing order is not kept, the next ids are easy to guess and a
+    // probe would lock the customer who places the order out of it
+    private final TtlCache<Integer, Integer> orderCustomers = new TtlCache<>(10_000, Duration.ofMinutes(10));
+
+    public boolean ownsCustomer(Authentication authentication, Integer customerId) {
+        Integer claimed = claim(authentication, UserClaimsTokenEnhancer.CUSTOMER_ID);
+        if (claimed != null)
+            return claimed.equals(customerId);
+        return owns(name(authentication), "customer:" + customerId,
+                key -> customerRepository.findOwnerEmail(customerId));
+    }
+
+    public boolean ownsOrder(Authentication authentication, Integer orderId) {
+        Integer claimed = claim(authentication, UserClaimsTokenEnhancer.CUSTOMER_ID);
+        if (claimed != null) {
+            Integer customerId = orderCustomers.get(orderId, id -> orderRepository.findCustomerIdById(id).orElse(null));
+            return claimed.equals(customerId);
+        }
+        return owns(name(authentication), "order:" + orderId, key -> orderRepository.findOwnerEmail(orderId));
+    }
+
+    public boolean isUser(Authentication authentication, Integer userId) {
+        Integer claimed = claim(authentication, UserClaimsTokenEnhancer.USER_ID);
+        if (claimed != null)
+            return claimed.equals(userId);
+        return owns(name(authentication), "user:" + userId, key -> userRepository.findEmailById(userId));
+    }
+
+    // called when the email of a user or the user of a customer changes. The entries go once the change commits,
+    // a check made before that would cache the previous owner again
+    public void evictAll() {
+        AfterCommit.run(owners::evictAll);
+    }
+
+    public CacheStatsDTO stats() {
+        return owners.stats();
+    }
+
+    // the claims are in the details only for a token issued with them
+    private Integer claim(Authentication authentication, String name) {
+        if (authentication == null || !(authentication.getDetails() instanceof OAuth2AuthenticationDetails))
+            return null;
+        Object claims = ((OAuth2AuthenticationDetails) authentication.getDetails()).getDecodedDetails();
+        if (!(claims instanceof Map))
+            return null;
+        Object value = ((Map<?, ?>) claims).get(name);
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    private String name(Authentication authentication) {
+        return authentication == null ? null : authentication.getName();
+    }
+
+    private boolean owns(String email, String key, Function<String, Optional<String>> loader) {
+        if (email == null)
+            return false;
+        Map<String, Optional<String>> memo = requestMemo();
+        Optional<String> owner = memo.get(key);
+        if (owner == null) {
+            owner = Optional.ofNullable(owners.get(key, id -> loader.apply(id).orElse(null)));
+            memo.put(key, owner);
+        }
+        return owner.map(ownerEmail -> Objects.equals(ownerEmail, email)).orElse(false);
+    }
+
+    // the same check runs once per request, outside a request nothing is kept
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<String>> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null)
+            return new HashMap<>();
+        Object memo = attributes.getAttribute(REQUEST_MEMO, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<String, Optional<String>>();
+            attributes.setAttribute(REQUEST_MEMO, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, Optional<String>>) memo;
+    }
+
+}
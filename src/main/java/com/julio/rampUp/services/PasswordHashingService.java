@@ -0,0 +1,152 @@
+package com.julio.rampUp.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.julio.rampUp.entities.dto.HashingStatsDTO;
+import com.julio.rampUp.services.exceptions.HashingBusyException;
+import com.julio.rampUp.services.exceptions.UnexpectedException;
+
+// every BCrypt hash and check of the application, signups and logins, runs on a small pool of its own. A burst of
+// signups waits in the queue, or gets a 503 when the queue is full, instead of taking the CPU of the other endpoints
+@Service
+public class PasswordHashingService {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+    private final int threads;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHashingService(@Value("${password.bcrypt-strength:10}") int strength,
+            @Value("${password.hashing-threads:2}") int threads,
+            @Value("${password.hashing-queue:100}") int queueCapacity) {
+        this.strength = strength;
+        this.threads = threads;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    // many hashes at once, e.g. a bulk import. They go in waves of twice the threads, so the queue keeps room for
+    // the signups and logins running meanwhile
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<String> hashes = new ArrayList<>();
+        int wave = threads * 2;
+        for (int from = 0; from < rawPasswords.size(); from += wave) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (CharSequence rawPassword : rawPasswords.subList(from, Math.min(from + wave, rawPasswords.size())))
+                futures.add(submit(() -> encoder.encode(rawPassword)));
+            for (Future<String> future : futures)
+                hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // a hash made with another cost is made again on the next successful login, see UserService.updatePassword
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null)
+            return false;
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    // for DaoAuthenticationProvider. It is not a bean, the PasswordEncoder bean stays the one of the client secrets
+    public PasswordEncoder asPasswordEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return PasswordHashingService.this.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return PasswordHashingService.this.matches(rawPassword, encodedPassword);
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return PasswordHashingService.this.upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    public HashingStatsDTO stats() {
+        return new HashingStatsDTO(strength, executor.getActiveCount(), executor.getQueue().size(),
+                completed.sum(), rejected.sum());
+    }
+
+    private <T> T run(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingBusyException();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new UnexpectedException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException(e.getMessage());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HashingBusyException();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.julio.rampUp.services;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,10 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
 import com.julio.rampUp.repositories.ProductOfferingRepository;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
@@ -23,10 +27,20 @@ public class ProductOfferingService {
     @Autowired
     private ProductOfferingRepository repository;
 
-    public List<ProductOffering> findAll(int page) {
+    // polled by the admin dashboard, dropped on every product write
+    private final CachedValue<List<Integer>> quantityCache = new CachedValue<>(Duration.ofSeconds(5));
+
+    public Slice<ProductOffering> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 6, sort);
-        return repository.findAll(pageable).toList();
+        return repository.findAllBy(pageable);
+    }
+
+    public CursorPageDTO<ProductOffering> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, 0);
+        List<ProductOffering> products = repository.findByIdGreaterThanOrderByIdAsc(lastId,
+                CursorPageDTO.pageable(limit));
+        return CursorPageDTO.of(products, limit, ProductOffering::getId);
     }
 
     public ProductOffering findById(Integer id) {
@@ -36,7 +50,9 @@ public class ProductOfferingService {
 
     public ProductOffering insert(ProductOffering productOffering) {
         try {
-            return repository.save(productOffering);
+            ProductOffering saved = repository.save(productOffering);
+            quantityCache.invalidate();
+            return saved;
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage());
         }
@@ -45,6 +61,7 @@ public class ProductOfferingService {
     public void deleteById(Integer id) {
         try {
             repository.deleteById(id);
+            quantityCache.invalidate();
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
@@ -56,7 +73,9 @@ public class ProductOfferingService {
         try {
             ProductOffering updatedProductOffering = repository.getReferenceById(id);
             updateData(updatedProductOffering, newProductOffering);
-            return repository.save(updatedProductOffering);
+            ProductOffering saved = repository.save(updatedProductOffering);
+            quantityCache.invalidate();
+            return saved;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
@@ -64,16 +83,12 @@ public class ProductOfferingService {
         }
     }
 
-    public Integer productToSale() {
-        List<Object[]> count = repository.productToSale();
-        if (count != null && !count.isEmpty()) {
-            return Integer.parseInt(count.get(0)[0].toString());
-        }
-        return 0;
-    }
-
-    public int prodQuantity() {
-        return (int) repository.count();
+    // all the products and the products for sale
+    public List<Integer> prodQuantity() {
+        return quantityCache.get(() -> {
+            StatusCountDTO count = repository.countForSale();
+            return List.of((int) count.getTotal(), (int) count.getFlagged());
+        });
     }
 
     private void updateData(ProductOffering updatedProductOffering, ProductOffering newProductOffering) {
@@ -0,0 +1,142 @@
+package com.julio.rampUp.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.OrderItem;
+import com.julio.rampUp.entities.RevenueRollup;
+import com.julio.rampUp.entities.RollupWatermark;
+import com.julio.rampUp.entities.enums.RollupGranularity;
+import com.julio.rampUp.repositories.OrderItemRepository;
+import com.julio.rampUp.repositories.OrderRepository;
+import com.julio.rampUp.repositories.RevenueRollupRepository;
+import com.julio.rampUp.repositories.RollupWatermarkRepository;
+
+@Service
+public class RevenueRollupService {
+
+    static final String WATERMARK = "revenue";
+
+    // an order is rolled up only once it is this old, so an insert still running can not fall behind the watermark
+    private static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+
+    // the orders read and the rollups written by one transaction
+    private static final Duration WINDOW = Duration.ofDays(1);
+
+    @Autowired
+    private RevenueRollupRepository repository;
+
+    @Autowired
+    private RollupWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Scheduled(initialDelayString = "${revenue.rollup-interval-ms:60000}",
+            fixedDelayString = "${revenue.rollup-interval-ms:60000}")
+    public void rollup() {
+        rollup(Instant.now().minus(SETTLE_TIME));
+    }
+
+    // adds the items of the orders placed between the watermark and until, returns how many items were added. A long
+    // way behind, like the first run, goes one window of orders per transaction
+    public int rollup(Instant until) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            if (!watermarkRepository.existsById(WATERMARK))
+                watermarkRepository.save(new RollupWatermark(WATERMARK, Instant.EPOCH));
+        });
+        int added = 0;
+        Integer window;
+        while ((window = transaction.execute(status -> rollupWindow(until))) != null)
+            added += window;
+        return added;
+    }
+
+    // null once the watermark reached until. The watermark row is locked first, so a cancellation committing
+    // meanwhile is either seen here as cancelled or waits and then finds its order behind the watermark
+    private Integer rollupWindow(Instant until) {
+        RollupWatermark watermark = watermarkRepository.findForUpdate(WATERMARK).get();
+        Instant from = watermark.getProcessedUntil();
+        if (!until.isAfter(from))
+            return null;
+
+        // the empty stretch before the next order is skipped in the same window
+        Instant first = orderRepository.findFirstInstantBetween(from, until);
+        Instant to = first == null ? until : min(first.plus(WINDOW), until);
+        List<Object[]> sales = orderItemRepository.findSalesPlacedBetween(from, to);
+        apply(sales, 1);
+        watermark.setProcessedUntil(to);
+        watermarkRepository.save(watermark);
+        return sales.size();
+    }
+
+    // called when an order is cancelled, its items are taken out of the rollups if they were already counted
+    @Transactional
+    public void removeOrder(Order order) {
+        Instant processedUntil = watermarkRepository.findForUpdate(WATERMARK).map(RollupWatermark::getProcessedUntil)
+                .orElse(Instant.EPOCH);
+        if (!order.getInstant().isBefore(processedUntil))
+            return;
+
+        List<Object[]> sales = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            sales.add(new Object[] { order.getInstant(), item.getProductOffering().getId(), item.getQuantity(),
+                    item.getTotalPrice() });
+        }
+        apply(sales, -1);
+    }
+
+    public List<RevenueRollup> findRange(RollupGranularity granularity, Instant from, Instant to, Integer productId) {
+        return repository.findRange(granularity.getCode(), from, to, productId);
+    }
+
+    // each row is order instant, product id, quantity and total price
+    private void apply(List<Object[]> sales, int sign) {
+        if (sales.isEmpty())
+            return;
+        List<RevenueRollup> changed = new ArrayList<>();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<Instant, Map<Integer, RevenueRollup>> buckets = new HashMap<>();
+            for (Object[] sale : sales) {
+                buckets.putIfAbsent(granularity.bucketOf((Instant) sale[0]), new HashMap<>());
+            }
+            for (RevenueRollup rollup : repository.findAllByGranularityAndBucketStartIn(granularity.getCode(),
+                    buckets.keySet())) {
+                buckets.get(rollup.getBucketStart()).put(rollup.getProductId(), rollup);
+            }
+            for (Object[] sale : sales) {
+                Instant bucketStart = granularity.bucketOf((Instant) sale[0]);
+                Integer productId = ((Number) sale[1]).intValue();
+                RevenueRollup rollup = buckets.get(bucketStart).computeIfAbsent(productId,
+                        id -> new RevenueRollup(granularity, bucketStart, id));
+                rollup.add(sign * ((Number) sale[3]).doubleValue(), sign * ((Number) sale[2]).longValue());
+            }
+            buckets.values().forEach(products -> changed.addAll(products.values()));
+        }
+        repository.saveAll(changed);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+}
@@ -9,10 +9,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.julio.rampUp.entities.Role;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.repositories.RoleRepository;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
@@ -23,10 +25,20 @@ public class RoleService {
     @Autowired
     private RoleRepository repository;
 
-    public List<Role> findAll(int page) {
+    // the authorities of every user holding the role are cached with their UserDetails
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    public Slice<Role> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 10, sort);
-        return repository.findAll(pageable).toList();
+        return repository.findAllBy(pageable);
+    }
+
+    public CursorPageDTO<Role> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, 0);
+        List<Role> roles = repository.findByIdGreaterThanOrderByIdAsc(lastId, CursorPageDTO.pageable(limit));
+        return CursorPageDTO.of(roles, limit, Role::getId);
     }
 
     public Role findById(Integer id) {
@@ -46,6 +58,7 @@ public class RoleService {
     public void deleteById(Integer id) {
         try {
             repository.deleteById(id);
+            userDetailsCache.evictAll();
         } catch (EmptyResultDataAccessException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
@@ -57,7 +70,9 @@ public class RoleService {
         try {
             Role updatedRole = repository.getReferenceById(id);
             updateData(updatedRole, newRole);
-            return repository.save(updatedRole);
+            Role saved = repository.save(updatedRole);
+            userDetailsCache.evictAll();
+            return saved;
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
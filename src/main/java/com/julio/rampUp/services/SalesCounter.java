@@ -0,0 +1,123 @@
+package com.julio.rampUp.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.OrderItem;
+import com.julio.rampUp.repositories.OrderItemRepository;
+
+// quantity sold of every product, counting only the orders that are not cancelled. It is loaded from the database
+// once the application is ready, kept up to date by OrderService and checked against the database periodically
+@Component
+public class SalesCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesCounter.class);
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final ConcurrentMap<Integer, LongAdder> sold = new ConcurrentHashMap<>();
+
+    // the orders update the counters under the read lock, together. The reconciliation takes the write lock from
+    // the query to the last adjustment, so an order committed meanwhile is not subtracted again
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            sold.clear();
+            reconcileLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // corrects the counters that drifted from the database, e.g. after a write made outside OrderService
+    @Scheduled(initialDelayString = "${sales.reconcile-interval-ms:300000}",
+            fixedDelayString = "${sales.reconcile-interval-ms:300000}")
+    public int reconcile() {
+        lock.writeLock().lock();
+        try {
+            return reconcileLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int reconcileLocked() {
+        List<Object[]> rows = orderItemRepository.quantitySoldItems();
+        Map<Integer, Long> fromDatabase = new HashMap<>();
+        for (Object[] row : rows) {
+            fromDatabase.put(((Number) row[0]).intValue(), ((Number) row[2]).longValue());
+        }
+        sold.keySet().forEach(productId -> fromDatabase.putIfAbsent(productId, 0L));
+
+        int drifted = 0;
+        for (Map.Entry<Integer, Long> entry : fromDatabase.entrySet()) {
+            LongAdder counter = counter(entry.getKey());
+            long drift = entry.getValue() - counter.sum();
+            if (drift != 0) {
+                counter.add(drift);
+                drifted++;
+            }
+        }
+        if (drifted > 0)
+            logger.info("Sales counters of {} products reconciled with the database", drifted);
+        return drifted;
+    }
+
+    public long quantitySold(Integer productId) {
+        LongAdder counter = sold.get(productId);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public void addOrder(Order order) {
+        apply(quantities(order), 1);
+    }
+
+    public void removeOrder(Order order) {
+        apply(quantities(order), -1);
+    }
+
+    // the quantities are read now, while the items are still attached, and applied only once the transaction
+    // commits so a rollback leaves the counters untouched
+    private void apply(Map<Integer, Long> quantities, int sign) {
+        AfterCommit.run(() -> {
+            lock.readLock().lock();
+            try {
+                quantities.forEach((productId, quantity) -> counter(productId).add(sign * quantity));
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    private Map<Integer, Long> quantities(Order order) {
+        Map<Integer, Long> quantities = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProductOffering().getId(), item.getQuantity().longValue(), Long::sum);
+        }
+        return quantities;
+    }
+
+    private LongAdder counter(Integer productId) {
+        return sold.computeIfAbsent(productId, id -> new LongAdder());
+    }
+
+}
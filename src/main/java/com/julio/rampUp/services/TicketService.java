@@ -9,11 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import com.julio.rampUp.entities.Order;
 import com.julio.rampUp.entities.Ticket;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.TicketDTO;
 import com.julio.rampUp.repositories.TicketRepository;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
@@ -28,10 +30,17 @@ public class TicketService {
     @Autowired
     private OrderService orderService;
 
-    public List<Ticket> findAll(int page) {
+    public Slice<Ticket> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.DESC, "id");
         Pageable pageable = PageRequest.of(page, 4, sort);
-        return repository.findAll(pageable).toList();
+        return repository.findAllBy(pageable);
+    }
+
+    // newest first, like findAll(int)
+    public CursorPageDTO<Ticket> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, Integer.MAX_VALUE);
+        List<Ticket> tickets = repository.findByIdLessThanOrderByIdDesc(lastId, CursorPageDTO.pageable(limit));
+        return CursorPageDTO.of(tickets, limit, Ticket::getId);
     }
 
     public Ticket findById(Integer id) {
@@ -74,10 +83,10 @@ public class TicketService {
         }
     }
 
-    public List<Ticket> findAllTicketsByCustomerId(int page, Integer id) {
+    public Slice<Ticket> findAllTicketsByCustomerId(int page, Integer id) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 10, sort);
-        return repository.findAllTicketsByCustomerId(pageable, id).toList();
+        return repository.findAllTicketsByCustomerId(pageable, id);
     }
 
     private Ticket builder(TicketDTO ticketDTO, Order order) {
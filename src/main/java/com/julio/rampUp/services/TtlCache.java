@@ -0,0 +1,80 @@
+package com.julio.rampUp.services;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.julio.rampUp.entities.dto.CacheStatsDTO;
+
+// a map limited in size and in time: the least recently used entry goes first when it is full, and an entry
+// older than the ttl is loaded again. A null loaded is returned but not kept, so a missing key is read again
+public class TtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TtlCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // the loader runs outside the lock, so a slow load does not block the hits on other keys
+    public V get(K key, Function<K, V> loader) {
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value == null)
+            return null;
+        synchronized (this) {
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+            if (entries.size() > maxSize) {
+                Iterator<K> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return value;
+    }
+
+    public synchronized void evict(K key) {
+        if (entries.remove(key) != null)
+            evictions.increment();
+    }
+
+    public synchronized void evictAll() {
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDTO stats() {
+        return new CacheStatsDTO(entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.julio.rampUp.services;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.julio.rampUp.entities.dto.CacheStatsDTO;
+
+// the UserDetails of the users that logged in lately, keyed by email
+@Component
+public class UserDetailsCache {
+
+    private final TtlCache<String, UserDetails> cache = new TtlCache<>(10_000, Duration.ofMinutes(5));
+
+    // a copy is returned: the authentication erases the password of the UserDetails it gets
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        return User.withUserDetails(cache.get(email, loader)).build();
+    }
+
+    // a login that reads the user before the change commits caches the old row, so the entry only goes once the
+    // transaction commits
+    public void evict(String email) {
+        AfterCommit.run(() -> cache.evict(email));
+    }
+
+    public void evictAll() {
+        AfterCommit.run(cache::evictAll);
+    }
+
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+
+}
@@ -3,7 +3,6 @@ package com.julio.rampUp.services;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.persistence.EntityNotFoundException;
@@ -12,28 +11,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.julio.rampUp.entities.Role;
 import com.julio.rampUp.entities.User;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.UserDTO;
 import com.julio.rampUp.repositories.UserRepository;
 import com.julio.rampUp.sendEmail.EmailHandler;
 import com.julio.rampUp.services.exceptions.AddressException;
 import com.julio.rampUp.services.exceptions.EmailDuplicateException;
 import com.julio.rampUp.services.exceptions.EmailNullException;
+import com.julio.rampUp.services.exceptions.HashingBusyException;
 import com.julio.rampUp.services.exceptions.InvalidEmailException;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+
+    static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$",
+            Pattern.CASE_INSENSITIVE);
 
     @Autowired
     private UserRepository repository;
@@ -42,12 +49,34 @@ public class UserService implements UserDetailsService {
     private EmailHandler emailImpl;
 
     @Autowired
-    private PasswordEncoder passwordEnconder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private OwnershipService ownershipService;
 
-    public List<UserDTO> findAll(int page) {
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private CustomerSearchIndex searchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public Slice<UserDTO> findAll(int page) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(page, 6, sort);
-        return userToDTO(repository.findAll(pageable).toList());
+        return repository.findAllBy(pageable).map(UserDTO::new);
+    }
+
+    public CursorPageDTO<UserDTO> findAll(String after, int limit) {
+        Integer lastId = CursorPageDTO.decode(after, 0);
+        List<User> users = repository.findByIdGreaterThanOrderByIdAsc(lastId, CursorPageDTO.pageable(limit));
+        CursorPageDTO<User> page = CursorPageDTO.of(users, limit, User::getId);
+        return new CursorPageDTO<>(userToDTO(page.getContent()), page.getNextCursor());
     }
 
     private List<UserDTO> userToDTO(List<User> users) {
@@ -63,24 +92,34 @@ public class UserService implements UserDetailsService {
         return obj.orElseThrow(() -> new ResourceNotFoundException(id)); // don't find id
     }
 
+    // the password is hashed before the transaction opens, a wait in the hashing queue holds no connection of the
+    // pool. The welcome email goes to the outbox in the same transaction as the user
     public User insert(User user, Role role) {
         try {
             checkEmail(user.getEmail());
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
+            emailFilter.put(user.getEmail());
             user.addRole(role);
-            emailImpl.sendEmail(user.getEmail(), user.getPassword());
-            passwordEnconder = new BCryptPasswordEncoder();
-            user.setPassword(passwordEnconder.encode(user.getPassword()));
-            return repository.save(user);
-        } catch (EmailNullException | EmailDuplicateException | InvalidEmailException e) {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                emailImpl.sendEmail(user.getEmail());
+                return repository.save(user);
+            });
+        } catch (EmailNullException | EmailDuplicateException | InvalidEmailException | HashingBusyException e) {
             throw e;
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage());
         }
     }
 
+    // the cached login of the user is evicted once the delete commits
+    @Transactional
     public void deleteById(Integer id) {
         try {
+            Optional<User> user = repository.findById(id);
+            user.ifPresent(deleted -> userDetailsCache.evict(deleted.getEmail()));
             repository.deleteById(id);
+            // the customer is deleted with its user
+            user.map(User::getCustomer).ifPresent(customer -> searchIndex.remove(customer.getId()));
         } catch (EmptyResultDataAccessException e) { // there is no entity with this id
             throw new ResourceNotFoundException(id);
         } catch (Exception e) {
@@ -88,6 +127,7 @@ public class UserService implements UserDetailsService {
         }
     }
 
+    @Transactional
     public User update(Integer id, User newUser) {
         try {
             User updatedUser = repository.getReferenceById(id);
@@ -95,35 +135,52 @@ public class UserService implements UserDetailsService {
             return repository.save(updatedUser);
         } catch (EntityNotFoundException e) { // dont find entity
             throw new ResourceNotFoundException(id);
-        } catch (EmailNullException | EmailDuplicateException | InvalidEmailException e) {
+        } catch (EmailNullException | EmailDuplicateException | InvalidEmailException | HashingBusyException e) {
             throw e;
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage());
         }
     }
 
+    // called by DaoAuthenticationProvider after a successful login when the hash was made with another cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        repository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.evict(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword)
+                .build();
+    }
+
+    // called on every login, the UserDetails are cached until the user or a role changes
     @Override
     public UserDetails loadUserByUsername(String email) {
         try {
-            Optional<User> user = repository.findByEmail(email);
-            List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-            for (Role role : user.get().getRoles()) {
-                SimpleGrantedAuthority auth = new SimpleGrantedAuthority(role.getAuthority().name());
-                authorities.add(auth);
-            }
-            return org.springframework.security.core.userdetails.User.builder().username(user.get().getEmail())
-                    .password(user.get().getPassword()).authorities(authorities).build();
+            return userDetailsCache.get(email, this::findUserDetails);
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage());
         }
     }
 
+    private UserDetails findUserDetails(String email) {
+        Optional<User> user = repository.findByEmail(email);
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        for (Role role : user.get().getRoles()) {
+            SimpleGrantedAuthority auth = new SimpleGrantedAuthority(role.getAuthority().name());
+            authorities.add(auth);
+        }
+        return org.springframework.security.core.userdetails.User.builder().username(user.get().getEmail())
+                .password(user.get().getPassword()).authorities(authorities).build();
+    }
+
     private void updateData(User updatedUser, User newUser) {
         checkEmail(newUser.getEmail());
+        userDetailsCache.evict(updatedUser.getEmail());
+        ownershipService.evictAll();
+        emailFilter.put(newUser.getEmail());
         updatedUser.setEmail(newUser.getEmail());
         if (newUser.getPassword() != null) {
-            passwordEnconder = new BCryptPasswordEncoder();
-            updatedUser.setPassword(passwordEnconder.encode(newUser.getPassword()));
+            updatedUser.setPassword(passwordHashingService.encode(newUser.getPassword()));
         }
 
     }
@@ -133,16 +190,12 @@ public class UserService implements UserDetailsService {
         if (email == null)
             throw new EmailNullException();
 
-        // duplicate email
-        Boolean existsEmail = repository.checkEmail(email);
-        if (existsEmail)
+        // duplicate email, only a "maybe" of the filter is checked in the database
+        if (emailFilter.mightContain(email) && repository.checkEmail(email))
             throw new EmailDuplicateException();
 
         // invalid email
-        String emailRegex = "^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$";
-        Pattern emailPattern = Pattern.compile(emailRegex, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = emailPattern.matcher(email);
-        if (!matcher.find())
+        if (!EMAIL_PATTERN.matcher(email).find())
             throw new InvalidEmailException();
     }
 
@@ -0,0 +1,10 @@
+package com.julio.rampUp.services.exceptions;
+
+public class HashingBusyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public HashingBusyException() {
+        super("Too many passwords being hashed, try again later");
+    }
+
+}
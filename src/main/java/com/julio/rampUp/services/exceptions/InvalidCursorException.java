@@ -0,0 +1,10 @@
+package com.julio.rampUp.services.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String cursor) {
+        super("This cursor is invalid: " + cursor);
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.julio.rampUp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RateLimitFilterTest {
+
+    private RateLimitFilter filterUnderTest;
+
+    @BeforeEach
+    public void setup() {
+        // two attempts, then one more per minute
+        filterUnderTest = new RateLimitFilter(2, 1);
+    }
+
+    @Test
+    @DisplayName("The third login from the same address gets a 429 before reaching the chain")
+    @Order(0)
+    public void doFilter_whenBucketIsEmpty_shouldReturnTooManyRequests() throws Exception {
+        // execute
+        MockHttpServletResponse first = login("10.0.0.1", "maria@gmail.com");
+        MockHttpServletResponse second = login("10.0.0.1", "joao@gmail.com");
+        MockHttpServletResponse third = login("10.0.0.1", "ana@gmail.com");
+
+        // assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(third.getContentAsString()).contains("\"path\":\"/oauth/token\"");
+        assertThat(filterUnderTest.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The same email is limited across addresses")
+    @Order(1)
+    public void doFilter_whenSameEmailFromManyAddresses_shouldReturnTooManyRequests() throws Exception {
+        // execute and assert
+        assertThat(login("10.0.0.1", "Maria@gmail.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.2", "maria@gmail.com").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.3", "maria@gmail.com").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.3", "joao@gmail.com").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Only the signup and the password grant are limited")
+    @Order(2)
+    public void doFilter_whenOtherEndpoint_shouldNotBeLimited() throws Exception {
+        // execute and assert
+        for (int i = 0; i < 2; i++)
+            assertThat(post("10.0.0.1", "/users/signup").getStatus()).isEqualTo(200);
+        assertThat(post("10.0.0.1", "/users/signup").getStatus()).isEqualTo(429);
+        for (int i = 0; i < 5; i++)
+            assertThat(post("10.0.0.1", "/customers").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Evict only the buckets that are full again")
+    @Order(3)
+    public void evictIdle_shouldKeepTheBucketsInUse() throws Exception {
+        // set up
+        RateLimitFilter fastRefill = new RateLimitFilter(1, 60_000);
+        fastRefill.tryAcquire("ip:10.0.0.1");
+        filterUnderTest.tryAcquire("ip:10.0.0.1");
+        Thread.sleep(5);
+
+        // execute and assert
+        assertThat(fastRefill.evictIdle()).isEqualTo(1);
+        assertThat(fastRefill.size()).isEqualTo(0);
+        assertThat(filterUnderTest.evictIdle()).isEqualTo(0);
+        assertThat(filterUnderTest.size()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse login(String address, String username) throws Exception {
+        MockHttpServletRequest request = request(address, "/oauth/token");
+        request.setParameter("grant_type", "password");
+        request.setParameter("username", username);
+        return filter(request);
+    }
+
+    private MockHttpServletResponse post(String address, String uri) throws Exception {
+        return filter(request(address, uri));
+    }
+
+    private MockHttpServletRequest request(String address, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(address);
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterUnderTest.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.julio.rampUp.mock;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// an SMTP server on a free local port that keeps what it receives, enough for JavaMail without auth or TLS
+public class SmtpStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile boolean rejectRecipients;
+
+    public SmtpStub() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "smtp-stub");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public List<String> getRecipients() {
+        return recipients;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    // answers 550 to every RCPT TO, so the sends fail
+    public void setRejectRecipients(boolean rejectRecipients) {
+        this.rejectRecipients = rejectRecipients;
+    }
+
+    public void reset() {
+        messages.clear();
+        recipients.clear();
+        connections.set(0);
+        rejectRecipients = false;
+    }
+
+    // one thread per connection, a pooled client keeps its session open
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> {
+                    try (socket) {
+                        session(socket);
+                    } catch (IOException e) {
+                        // the client went away
+                    }
+                }, "smtp-stub-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void session(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        reply(out, "220 localhost SMTP stub");
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.toUpperCase();
+            if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                reply(out, "250 localhost");
+            } else if (command.startsWith("RCPT TO")) {
+                if (rejectRecipients) {
+                    reply(out, "550 mailbox unavailable");
+                } else {
+                    recipients.add(line.substring(line.indexOf('<') + 1, line.indexOf('>')));
+                    reply(out, "250 OK");
+                }
+            } else if (command.startsWith("DATA")) {
+                reply(out, "354 end with <CRLF>.<CRLF>");
+                StringBuilder data = new StringBuilder();
+                while ((line = in.readLine()) != null && !line.equals("."))
+                    data.append(line).append("\n");
+                messages.add(data.toString());
+                reply(out, "250 OK");
+            } else if (command.startsWith("QUIT")) {
+                reply(out, "221 bye");
+                return;
+            } else {
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+}
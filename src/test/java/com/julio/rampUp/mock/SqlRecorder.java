@@ -0,0 +1,28 @@
+package com.julio.rampUp.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// keeps the SQL Hibernate sends to the database, registered as the statement inspector of a test context
+public class SqlRecorder implements StatementInspector {
+    private static final long serialVersionUID = 1L;
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.julio.rampUp.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.julio.rampUp.entities.enums.OutboxStatus;
+import com.julio.rampUp.mock.SqlRecorder;
+
+// every lookup the application runs on a request path has to be answered through an index. The queries that read
+// whole tables on purpose are not listed: findAllEmails and streamSearchRows (startup loads), streamExportRows
+// (export), quantitySoldItems, countCancelled and the other dashboard aggregates
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.julio.rampUp.mock.SqlRecorder")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class QueryPlanTest {
+
+    private static final String email = "maria@gmail.com";
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private AddressRepository addressRepo;
+
+    @Autowired
+    private OrderRepository orderRepo;
+
+    @Autowired
+    private TicketRepository ticketRepo;
+
+    @Autowired
+    private ProductOfferingRepository productOfferingRepo;
+
+    @Autowired
+    private OrderItemRepository orderItemRepo;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("User lookups use an index")
+    @Order(0)
+    public void userQueries_shouldNotScanTables() {
+        assertIndexed("checkEmail", () -> userRepo.checkEmail(email));
+        assertIndexed("findExistingEmails", () -> userRepo.findExistingEmails(Set.of(email, "x@acme.com")));
+        assertIndexed("findByEmail", () -> userRepo.findByEmail(email));
+        assertIndexed("findIdsByEmail", () -> userRepo.findIdsByEmail(email));
+        assertIndexed("findEmailById", () -> userRepo.findEmailById(1));
+        assertIndexed("findById", () -> userRepo.findById(1));
+        assertIndexed("findByIdGreaterThanOrderByIdAsc",
+                () -> userRepo.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("Customer lookups use an index")
+    @Order(1)
+    public void customerQueries_shouldNotScanTables() {
+        assertIndexed("findById", () -> customerRepo.findById(1));
+        assertIndexed("findOwnerEmail", () -> customerRepo.findOwnerEmail(1));
+        assertIndexed("findSummaryById", () -> customerRepo.findSummaryById(1));
+        assertIndexed("findAllBy", () -> customerRepo.findAllBy(PageRequest.of(0, 10)));
+        assertIndexed("findByIdGreaterThanOrderByIdAsc",
+                () -> customerRepo.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("Address lookups use an index")
+    @Order(2)
+    public void addressQueries_shouldNotScanTables() {
+        assertIndexed("findAllAddressesByCustomerId",
+                () -> addressRepo.findAllAddressesByCustomerId(PageRequest.of(0, 10), 1));
+        assertIndexed("findDefaultByCustomerId", () -> addressRepo.findDefaultByCustomerId(1, PageRequest.of(0, 1)));
+        assertIndexed("findByDeletedAndIdGreaterThanOrderByIdAsc",
+                () -> addressRepo.findByDeletedAndIdGreaterThanOrderByIdAsc(false, 0, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    @DisplayName("Order lookups use an index")
+    @Order(3)
+    public void orderQueries_shouldNotScanTables() {
+        assertIndexed("findAllOrderIdsByCustomerId",
+                () -> orderRepo.findAllOrderIdsByCustomerId(PageRequest.of(0, 10), 1));
+        assertIndexed("findAllWithCustomerByIdIn", () -> orderRepo.findAllWithCustomerByIdIn(List.of(1, 2)));
+        assertIndexed("findAllWithItemsByIdIn", () -> orderRepo.findAllWithItemsByIdIn(List.of(1, 2)));
+        assertIndexed("findOwnerEmail", () -> orderRepo.findOwnerEmail(1));
+        assertIndexed("findCustomerIdById", () -> orderRepo.findCustomerIdById(1));
+        assertIndexed("findRecentByCustomerId", () -> orderRepo.findRecentByCustomerId(1, PageRequest.of(0, 5)));
+        assertIndexed("findIdsBefore", () -> orderRepo.findIdsBefore(100, PageRequest.of(0, 10)));
+        assertIndexed("findAllByOrderIdIn", () -> productOfferingRepo.findAllByOrderIdIn(List.of(1, 2)));
+        assertIndexed("findSalesPlacedBetween",
+                () -> orderItemRepo.findSalesPlacedBetween(Instant.now().minusSeconds(3600), Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Ticket and outbox lookups use an index")
+    @Order(4)
+    public void ticketAndOutboxQueries_shouldNotScanTables() {
+        assertIndexed("findAll(solved)", () -> ticketRepo.findAll(PageRequest.of(0, 10), false));
+        assertIndexed("findAllTicketsByCustomerId",
+                () -> ticketRepo.findAllTicketsByCustomerId(PageRequest.of(0, 10), 1));
+        assertIndexed("findByIdLessThanOrderByIdDesc",
+                () -> ticketRepo.findByIdLessThanOrderByIdDesc(100, PageRequest.of(0, 10)));
+        assertIndexed("findDue",
+                () -> outboxRepo.findDue(OutboxStatus.Pending.getCode(), Instant.now(), PageRequest.of(0, 10)));
+        assertIndexed("countByStatus", () -> outboxRepo.countByStatus(OutboxStatus.Pending.getCode()));
+    }
+
+    // runs the query, then EXPLAIN on every statement it sent, including the ones loading eager associations
+    private void assertIndexed(String name, Runnable query) {
+        SqlRecorder.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        List<String> statements = SqlRecorder.statements();
+        assertThat(statements).as(name).isNotEmpty();
+
+        List<String> scans = new ArrayList<>();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (plan.contains(".tableScan"))
+                scans.add(plan);
+        }
+        assertThat(scans).as("full scans of " + name).isEmpty();
+    }
+
+    // the parameters are left null, the plan is chosen before their values are known
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++)
+                    statement.setObject(i, null);
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+}
@@ -20,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -83,7 +84,7 @@ public class AddressResourceTest {
     public void findAll_shouldReturnAllAddress() throws Exception {
         // set up
         List<AddressDTO> list = List.of(addressDTO); // addressTest2 is deleted
-        when(addressService.findAll(anyInt())).thenReturn(list);
+        when(addressService.findAll(anyInt())).thenReturn(new SliceImpl<>(list));
         // execute and assert
         mockMvc.perform(get("/addresses/page/" + testPage).header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk()) //
@@ -0,0 +1,109 @@
+package com.julio.rampUp.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.julio.rampUp.entities.ItemsSum;
+import com.julio.rampUp.entities.dto.CacheStatsDTO;
+import com.julio.rampUp.entities.dto.DashboardDTO;
+import com.julio.rampUp.mock.TokenMock;
+import com.julio.rampUp.services.DashboardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AdminResourceTest {
+
+    @Autowired
+    private WebApplicationContext wac;
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    private MockMvc mockMvc;
+    private String accessToken;
+    private TokenMock tokenMock;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).addFilter(springSecurityFilterChain).build();
+        tokenMock = new TokenMock();
+        accessToken = tokenMock.obtainAccessToken("haaland@gmail.com", "9city9", mockMvc);
+    }
+
+    @Test
+    @DisplayName("Get the admin dashboard")
+    @Order(0)
+    public void dashboard_shouldReturnTheCombinedPayload() throws Exception {
+        // set up
+        DashboardDTO dashboard = new DashboardDTO(List.of(5, 1), List.of(new ItemsSum(1, 15, "namePO1")),
+                List.of(9, 8));
+        when(dashboardService.dashboard()).thenReturn(dashboard);
+        // execute and assert
+        mockMvc.perform(get("/admin/dashboard").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk()) //
+                .andExpect(jsonPath("$.ordersInfo[0]", is(5)))
+                .andExpect(jsonPath("$.soldItems[0].prod_name", is("namePO1")))
+                .andExpect(jsonPath("$.productsInfo[1]", is(8)));
+    }
+
+    @Test
+    @DisplayName("A token is decoded once and read from the cache afterwards")
+    @Order(1)
+    public void tokenCacheStats_whenSameTokenIsReused_shouldCountHits() throws Exception {
+        // execute
+        CacheStatsDTO first = tokenCacheStats();
+        CacheStatsDTO second = tokenCacheStats();
+
+        // assert, every request reads the access token and the authentication
+        assertThat(second.getHits()).isGreaterThanOrEqualTo(first.getHits() + 2);
+        assertThat(second.getMisses()).isEqualTo(first.getMisses());
+    }
+
+    @Test
+    @DisplayName("A token with a wrong signature is still rejected")
+    @Order(2)
+    public void tokenCacheStats_whenSignatureIsWrong_shouldReturnUnauthorized() throws Exception {
+        // set up
+        String tampered = accessToken.substring(0, accessToken.length() - 2) + "xx";
+
+        // execute and assert
+        mockMvc.perform(get("/admin/cache/tokens").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private CacheStatsDTO tokenCacheStats() throws Exception {
+        String body = mockMvc.perform(get("/admin/cache/tokens").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readValue(body, CacheStatsDTO.class);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.julio.rampUp.resources;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -15,6 +16,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,24 +29,37 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
+import org.springframework.security.jwt.JwtHelper;
 import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.julio.rampUp.config.UserClaimsTokenEnhancer;
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.Ticket;
 import com.julio.rampUp.entities.User;
 import com.julio.rampUp.entities.dto.AddressDTO;
 import com.julio.rampUp.entities.dto.CustomerDTO;
+import com.julio.rampUp.entities.dto.CustomerHitDTO;
+import com.julio.rampUp.entities.dto.CustomerSummaryDTO;
+import com.julio.rampUp.entities.dto.ImportErrorDTO;
+import com.julio.rampUp.entities.dto.ImportReportDTO;
 import com.julio.rampUp.entities.enums.AddressType;
 import com.julio.rampUp.entities.enums.CustomerType;
+import com.julio.rampUp.entities.projections.AddressSummary;
+import com.julio.rampUp.entities.projections.CustomerSummary;
+import com.julio.rampUp.entities.projections.OrderSummary;
 import com.julio.rampUp.mock.TokenMock;
 import com.julio.rampUp.services.AddressService;
 import com.julio.rampUp.services.CustomerService;
+import com.julio.rampUp.services.OnboardingService;
 import com.julio.rampUp.services.OrderService;
 import com.julio.rampUp.services.TicketService;
 import com.julio.rampUp.services.exceptions.AddressException;
@@ -53,6 +68,7 @@ import com.julio.rampUp.services.exceptions.IdNullException;
 import com.julio.rampUp.services.exceptions.NoValueForIdException;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
@@ -88,6 +104,9 @@ public class CustomerResourceTest {
     @MockBean
     private TicketService ticketService;
 
+    @MockBean
+    private OnboardingService onboardingService;
+
     private User userTest1;
     private User userTest2;
     private Customer customerTest1;
@@ -152,7 +171,7 @@ public class CustomerResourceTest {
     public void findAll_shouldReturnAllCustomers() throws Exception {
         // set up
         List<CustomerDTO> list = List.of(customerDTO, customerDTO2);
-        when(customerService.findAll(anyInt())).thenReturn(list);
+        when(customerService.findAll(anyInt())).thenReturn(new SliceImpl<>(list));
         // execute and assert
         mockMvc.perform(get("/customers/page/" + testPage).header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk()) //
@@ -374,7 +393,7 @@ public class CustomerResourceTest {
     public void findAllAddressesByCustomerId_thenReturnAllCustomerAddresses() throws Exception {
         // set up
         List<Address> customerTest1Addresses = List.of(addressTest1, addressTest2);
-        when(addressService.findAllAddressesByCustomerId(anyInt(), anyInt())).thenReturn(customerTest1Addresses);
+        when(addressService.findAllAddressesByCustomerId(anyInt(), anyInt())).thenReturn(new SliceImpl<>(customerTest1Addresses));
 
         // execute and assert
         mockMvc.perform(get("/customers/" + testId + "/addresses/page/" + testPage).header("Authorization",
@@ -531,7 +550,7 @@ public class CustomerResourceTest {
     public void findAllOrdersByCustomerId_thenReturnAllCustomerOrders() throws Exception {
         // set up
         List<com.julio.rampUp.entities.Order> customerTest1Orders = List.of(orderTest1, orderTest2);
-        when(orderService.findAllOrdersByCustomerId(anyInt(), anyInt())).thenReturn(customerTest1Orders);
+        when(orderService.findAllOrdersByCustomerId(anyInt(), anyInt())).thenReturn(new SliceImpl<>(customerTest1Orders));
 
         // execute and assert
         mockMvc.perform(get("/customers/" + testId + "/orders/page/" + testPage).header("Authorization",
@@ -550,7 +569,7 @@ public class CustomerResourceTest {
     public void findAllTicketsByCustomerId_thenReturnAllCustomerTickets() throws Exception {
         // set up
         List<Ticket> customerTest1Tickets = List.of(ticketTest1, ticketTest2);
-        when(ticketService.findAllTicketsByCustomerId(anyInt(), anyInt())).thenReturn(customerTest1Tickets);
+        when(ticketService.findAllTicketsByCustomerId(anyInt(), anyInt())).thenReturn(new SliceImpl<>(customerTest1Tickets));
 
         // execute and assert
         mockMvc.perform(get("/customers/" + testId + "/tickets/page/" + testPage).header("Authorization",
@@ -563,6 +582,129 @@ public class CustomerResourceTest {
                 .andExpect(jsonPath("$[1].order.id", is(ticketTest2.getOrder().getId())));
     }
 
+    @Test
+    @DisplayName("A customer can only read its own data")
+    @Order(27)
+    public void findById_whenNotAdmin_shouldOnlyReturnTheOwnCustomer() throws Exception {
+        // set up, maria owns the first customer seeded by TestConfig
+        String operatorToken = tokenMock.obtainAccessToken("maria@gmail.com", "1234567", mockMvc);
+        when(customerService.findById(anyInt())).thenReturn(customerTest1);
+
+        // execute and assert
+        mockMvc.perform(get("/customers/home/1").header("Authorization", "Bearer " + operatorToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/customers/home/2").header("Authorization", "Bearer " + operatorToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("The token carries the user id and the customer id")
+    @Order(28)
+    @SuppressWarnings("deprecation")
+    public void obtainAccessToken_shouldCarryTheIdClaims() throws Exception {
+        // execute
+        String operatorToken = tokenMock.obtainAccessToken("maria@gmail.com", "1234567", mockMvc);
+        JsonNode claims = new ObjectMapper().readTree(JwtHelper.decode(operatorToken).getClaims());
+
+        // assert
+        assertThat(claims.get(UserClaimsTokenEnhancer.USER_ID).asInt()).isEqualTo(1);
+        assertThat(claims.get(UserClaimsTokenEnhancer.CUSTOMER_ID).asInt()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Import customers from an ndjson file and return the report")
+    @Order(29)
+    public void importNdjson_thenReturnTheReport() throws Exception {
+        // set up
+        ImportReportDTO report = new ImportReportDTO(2, 1, 1, 10,
+                List.of(new ImportErrorDTO(2, "maria@gmail.com", "This email already has a User")));
+        when(onboardingService.importNdjson(any())).thenReturn(report);
+
+        // execute and assert
+        mockMvc.perform(post("/customers/import/ndjson").header("Authorization", "Bearer " + accessToken)
+                .contentType("application/x-ndjson").content("{}\n{}\n")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows", is(2))).andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].email", is("maria@gmail.com")));
+    }
+
+    @Test
+    @DisplayName("(Exception) Import customers without being an admin")
+    @Order(32)
+    public void importNdjson_whenNotAdmin_thenReturnForbidden() throws Exception {
+        // set up
+        String operatorToken = tokenMock.obtainAccessToken("maria@gmail.com", "1234567", mockMvc);
+
+        // execute and assert
+        mockMvc.perform(post("/customers/import/ndjson").header("Authorization", "Bearer " + operatorToken)
+                .contentType("application/x-ndjson").content("{}\n")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Find the summary of a customer")
+    @Order(30)
+    public void summary_thenReturnTheCountsAndTheNewestOrders() throws Exception {
+        // set up
+        ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        CustomerSummary customer = projections.createProjection(CustomerSummary.class,
+                Map.of("id", testId, "customerName", "Maria", "customerType", 1, "orderCount", 10000L));
+        OrderSummary order = projections.createProjection(OrderSummary.class,
+                Map.of("id", 7, "instant", Instant.parse("2023-01-01T10:00:00Z"), "itemCount", 2L, "total", 200.0));
+        when(customerService.summary(anyInt(), anyInt()))
+                .thenReturn(new CustomerSummaryDTO(customer, null, List.of(order)));
+        String operatorToken = tokenMock.obtainAccessToken("maria@gmail.com", "1234567", mockMvc);
+
+        // execute and assert
+        mockMvc.perform(get("/customers/home/1/summary").header("Authorization", "Bearer " + operatorToken))
+                .andExpect(status().isOk()) //
+                .andExpect(jsonPath("$.customerName", is("Maria")))
+                .andExpect(jsonPath("$.orderCount", is(10000)))
+                .andExpect(jsonPath("$.recentOrders[0].id", is(7)))
+                .andExpect(jsonPath("$.recentOrders[0].instant", is("2023-01-01T10:00:00Z")))
+                .andExpect(jsonPath("$.recentOrders[0].total", is(200.0)));
+        mockMvc.perform(get("/customers/home/2/summary").header("Authorization", "Bearer " + operatorToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Search customers by name or document number")
+    @Order(31)
+    public void search_thenReturnTheHits() throws Exception {
+        // set up
+        when(customerService.search("mar", 10)).thenReturn(List.of(new CustomerHitDTO(1, "Maria Silva", 111)));
+        String operatorToken = tokenMock.obtainAccessToken("maria@gmail.com", "1234567", mockMvc);
+
+        // execute and assert
+        mockMvc.perform(get("/customers/search").param("q", "mar").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk()) //
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].customerName", is("Maria Silva")))
+                .andExpect(jsonPath("$[0].documentNumber", is(111)));
+        mockMvc.perform(get("/customers/search").param("q", "mar").header("Authorization", "Bearer " + operatorToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("The summary shows the public fields only, like the other customer endpoints")
+    @Order(33)
+    public void summary_thenReturnThePublicView() throws Exception {
+        // set up
+        ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        CustomerSummary customer = projections.createProjection(CustomerSummary.class,
+                Map.of("id", testId, "customerName", "Maria", "customerType", 1));
+        AddressSummary address = projections.createProjection(AddressSummary.class,
+                Map.of("id", 9, "street", "Rua A", "houseNumber", 1, "addressType", 1));
+        when(customerService.summary(anyInt(), anyInt())).thenReturn(new CustomerSummaryDTO(customer, address,
+                List.of()));
+
+        // execute and assert
+        mockMvc.perform(get("/customers/home/1/summary").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk()) //
+                .andExpect(jsonPath("$.customerName", is("Maria")))
+                .andExpect(jsonPath("$.defaultAddress.street", is("Rua A")))
+                .andExpect(jsonPath("$.defaultAddress.id").doesNotExist());
+    }
+
     public static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(obj);
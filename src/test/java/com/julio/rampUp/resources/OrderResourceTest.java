@@ -3,16 +3,24 @@ package com.julio.rampUp.resources;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 
@@ -26,16 +34,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.RevenueRollup;
 import com.julio.rampUp.entities.ProductOffering;
 import com.julio.rampUp.entities.Ticket;
 import com.julio.rampUp.entities.dto.OrderDTO;
@@ -43,8 +54,11 @@ import com.julio.rampUp.entities.dto.TicketDTO;
 import com.julio.rampUp.entities.enums.AddressType;
 import com.julio.rampUp.entities.enums.CustomerType;
 import com.julio.rampUp.entities.enums.POState;
+import com.julio.rampUp.entities.enums.RollupGranularity;
 import com.julio.rampUp.mock.TokenMock;
+import com.julio.rampUp.services.OrderExportService;
 import com.julio.rampUp.services.OrderService;
+import com.julio.rampUp.services.RevenueRollupService;
 import com.julio.rampUp.services.TicketService;
 import com.julio.rampUp.services.exceptions.IdNullException;
 import com.julio.rampUp.services.exceptions.NoValueForIdException;
@@ -78,6 +92,12 @@ public class OrderResourceTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private RevenueRollupService revenueRollupService;
+
+    @MockBean
+    private OrderExportService orderExportService;
+
     private Customer customerTest;
     private Address address;
     private Order orderTest1;
@@ -133,7 +153,7 @@ public class OrderResourceTest {
     public void findAll_shouldReturnAllOrders() throws Exception {
         // set up
         List<OrderDTO> list = List.of(orderDTO, orderDTO2);
-        when(orderService.findAll(anyInt())).thenReturn(list);
+        when(orderService.findAll(anyInt())).thenReturn(new SliceImpl<>(list));
         // execute and assert
 //        mockMvc.perform(get("/orders/page/" + testPage).header("Authorization", "Bearer " + accessToken))
 //                .andExpect(status().isOk()) //
@@ -363,4 +383,42 @@ public class OrderResourceTest {
         }
     }
 
+    @Test
+    @DisplayName("Get the daily revenue rollups of a range")
+    @org.junit.jupiter.api.Order(16)
+    public void stats_shouldReturnTheRollupsOfTheRange() throws Exception {
+        // set up
+        Instant from = Instant.parse("2023-06-20T00:00:00Z");
+        Instant to = Instant.parse("2023-06-21T00:00:00Z");
+        RevenueRollup rollup = new RevenueRollup(RollupGranularity.Day, from, poTest.getId());
+        rollup.add(42500.0, 1);
+        when(revenueRollupService.findRange(eq(RollupGranularity.Day), eq(from), eq(to), isNull()))
+                .thenReturn(List.of(rollup));
+        // execute and assert
+        mockMvc.perform(get("/orders/stats").param("from", from.toString()).param("to", to.toString())
+                .header("Authorization", "Bearer " + accessToken)).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId", is(poTest.getId())))
+                .andExpect(jsonPath("$[0].units", is(1)))
+                .andExpect(jsonPath("$[0].bucketStart", is("2023-06-20T00:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Export the orders as NDJSON")
+    @org.junit.jupiter.api.Order(17)
+    public void exportNdjson_shouldStreamTheOrders() throws Exception {
+        // set up
+        String line = "{\"id\":1,\"items\":[]}\n";
+        doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(line.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(orderExportService).exportNdjson(any());
+        // execute and assert
+        MvcResult result = mockMvc
+                .perform(get("/orders/export/ndjson").header("Authorization", "Bearer " + accessToken))
+                .andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line));
+    }
+
 }
@@ -26,6 +26,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -83,7 +84,7 @@ public class ProductOfferingResourceTest {
     public void findAll_shouldReturnAllProductOfferings() throws Exception {
         // set up
         List<ProductOffering> list = List.of(poTest1, poTest2);
-        when(poService.findAll(anyInt())).thenReturn(list);
+        when(poService.findAll(anyInt())).thenReturn(new SliceImpl<>(list));
         // execute and assert
         mockMvc.perform(get("/productOfferings/page/" + testPage).header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk()) //
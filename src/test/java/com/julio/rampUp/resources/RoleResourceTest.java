@@ -10,6 +10,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -26,6 +27,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -34,9 +37,11 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import com.julio.rampUp.entities.Role;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.enums.Authorities;
 import com.julio.rampUp.mock.TokenMock;
 import com.julio.rampUp.services.RoleService;
+import com.julio.rampUp.services.exceptions.InvalidCursorException;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -86,10 +91,11 @@ public class RoleResourceTest {
     public void findAll_shouldReturnAllRoles() throws Exception {
         // set up
         List<Role> list = List.of(roleAdmin, roleOperator);
-        when(roleService.findAll(anyInt())).thenReturn(list);
+        when(roleService.findAll(anyInt())).thenReturn(new SliceImpl<>(list, PageRequest.of(0, 2), true));
         // execute and assert
         mockMvc.perform(get("/roles/page/" + testPage).header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk()) //
+                .andExpect(header().string(SliceResponse.HAS_NEXT_HEADER, "true"))
                 .andExpect(jsonPath("$[0].id", is(roleAdmin.getId())))
                 .andExpect(jsonPath("$[0].authority", is("Admin")))
                 .andExpect(jsonPath("$[1].id", is(roleOperator.getId())))
@@ -227,6 +233,32 @@ public class RoleResourceTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @DisplayName("Get Roles after a cursor")
+    @Order(11)
+    public void findAllAfterCursor_shouldReturnRolesAndNextCursor() throws Exception {
+        // set up
+        CursorPageDTO<Role> page = new CursorPageDTO<>(List.of(roleAdmin), CursorPageDTO.encode(roleAdmin.getId()));
+        when(roleService.findAll(any(), anyInt())).thenReturn(page);
+        // execute and assert
+        mockMvc.perform(get("/roles/page").param("limit", "1").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk()) //
+                .andExpect(jsonPath("$.content[0].id", is(roleAdmin.getId())))
+                .andExpect(jsonPath("$.content[0].authority", is("Admin")))
+                .andExpect(jsonPath("$.nextCursor", is(page.getNextCursor())));
+    }
+
+    @Test
+    @DisplayName("(Exception) Get Roles after a cursor - Invalid cursor")
+    @Order(12)
+    public void findAllAfterCursor_whenCursorIsInvalid_thenReturnBadRequest() throws Exception {
+        // set up
+        when(roleService.findAll(any(), anyInt())).thenThrow(new InvalidCursorException("abc"));
+        // execute and assert
+        mockMvc.perform(get("/roles/page").param("after", "abc").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isBadRequest());
+    }
+
     public static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
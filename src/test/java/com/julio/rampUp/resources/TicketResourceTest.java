@@ -24,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -101,7 +102,7 @@ public class TicketResourceTest {
     public void findAll_shouldReturnAllTickets() throws Exception {
         // set up
         List<Ticket> list = List.of(ticketTest, ticketTest2);
-        when(ticketService.findAll(anyInt())).thenReturn(list);
+        when(ticketService.findAll(anyInt())).thenReturn(new SliceImpl<>(list));
         // execute and assert
         mockMvc.perform(get("/tickets/page/" + testPage).header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk()) //
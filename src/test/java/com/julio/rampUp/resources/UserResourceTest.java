@@ -27,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.FilterChainProxy;
@@ -116,7 +117,7 @@ public class UserResourceTest {
     public void findAll_shouldReturnAllUsers() throws Exception {
         // set up
         List<UserDTO> list = List.of(userDTO1, userDTO2);
-        when(userService.findAll(anyInt())).thenReturn(list);
+        when(userService.findAll(anyInt())).thenReturn(new SliceImpl<>(list));
         // execute and assert
         mockMvc.perform(get("/users/page/" + testPage).header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk()) //
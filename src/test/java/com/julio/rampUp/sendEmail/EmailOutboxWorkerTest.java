@@ -0,0 +1,162 @@
+package com.julio.rampUp.sendEmail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.julio.rampUp.entities.EmailOutbox;
+import com.julio.rampUp.entities.enums.OutboxStatus;
+import com.julio.rampUp.mock.SmtpStub;
+import com.julio.rampUp.repositories.EmailOutboxRepository;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class EmailOutboxWorkerTest {
+
+    private static final SmtpStub smtp = startSmtp();
+
+    @Autowired
+    private EmailHandler emailHandler;
+
+    @Autowired
+    private EmailOutboxWorker workerUnderTest;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
+    // the mails go to the stub, and the scheduled drain stays out of the way
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", smtp::getPort);
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+        registry.add("email.outbox.poll-interval-ms", () -> "3600000");
+        registry.add("email.outbox.max-attempts", () -> "3");
+    }
+
+    @BeforeEach
+    public void setup() {
+        outboxRepo.deleteAll();
+        smtp.reset();
+    }
+
+    @AfterAll
+    public static void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("An email of the outbox is sent by the worker")
+    @Order(0)
+    public void drain_shouldSendThePendingEmails() throws Exception {
+        // set up
+        emailHandler.sendEmail("maria@gmail.com");
+        assertThat(outboxRepo.countByStatus(OutboxStatus.Pending.getCode())).isEqualTo(1);
+
+        // execute
+        int claimed = workerUnderTest.drain();
+        EmailOutbox email = await(OutboxStatus.Sent);
+
+        // assert
+        assertThat(claimed).isEqualTo(1);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getSentAt()).isNotNull();
+        assertThat(smtp.getRecipients()).containsExactly("maria@gmail.com");
+        assertThat(smtp.getMessages().get(0)).contains("Subject: Store account created");
+        assertThat(workerUnderTest.drain()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("A failed send is tried again later")
+    @Order(1)
+    public void drain_whenSendFails_shouldScheduleARetry() throws Exception {
+        // set up
+        smtp.setRejectRecipients(true);
+        emailHandler.sendEmail("maria@gmail.com");
+
+        // execute
+        workerUnderTest.drain();
+        EmailOutbox email = awaitAttempts(1);
+
+        // assert
+        assertThat(email.getStatus()).isEqualTo(OutboxStatus.Pending);
+        assertThat(email.getLastError()).isNotNull();
+        assertThat(email.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(20));
+        assertThat(smtp.getMessages()).isEmpty();
+        assertThat(workerUnderTest.drain()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("After the last attempt the email is dead-lettered")
+    @Order(2)
+    public void drain_whenLastAttemptFails_shouldMarkTheEmailDead() throws Exception {
+        // set up
+        smtp.setRejectRecipients(true);
+        EmailOutbox pending = new EmailOutbox("maria@gmail.com", "subject", "body", Instant.now());
+        pending.setAttempts(2);
+        outboxRepo.save(pending);
+
+        // execute
+        workerUnderTest.drain();
+        EmailOutbox email = await(OutboxStatus.Dead);
+
+        // assert
+        assertThat(email.getAttempts()).isEqualTo(3);
+        assertThat(outboxRepo.countByStatus(OutboxStatus.Pending.getCode())).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("The wait between attempts doubles up to an hour")
+    @Order(3)
+    public void backoff_shouldDoubleUpToAnHour() {
+        // execute and assert
+        assertThat(EmailOutboxWorker.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(EmailOutboxWorker.backoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(EmailOutboxWorker.backoff(4)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(EmailOutboxWorker.backoff(30)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private EmailOutbox await(OutboxStatus status) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            EmailOutbox email = outboxRepo.findAll().get(0);
+            if (email.getStatus() == status)
+                return email;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The email never got to " + status);
+    }
+
+    private EmailOutbox awaitAttempts(int attempts) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            EmailOutbox email = outboxRepo.findAll().get(0);
+            if (email.getAttempts() >= attempts)
+                return email;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The email was never tried " + attempts + " times");
+    }
+
+    private static SmtpStub startSmtp() {
+        try {
+            return new SmtpStub();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.julio.rampUp.sendEmail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.julio.rampUp.entities.dto.MailStatsDTO;
+import com.julio.rampUp.mock.SmtpStub;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PooledMailSenderTest {
+
+    private static final int MESSAGES = 200;
+
+    private SmtpStub smtp;
+    private JavaMailSenderImpl javaMailSender;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        smtp = new SmtpStub();
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtp.getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.localhost", "localhost");
+        javaMailSender.setJavaMailProperties(properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("A batch goes over one connection, and the next batch reuses it")
+    @Order(0)
+    public void send_whenPooled_shouldReuseTheConnection() throws Exception {
+        // set up
+        PooledMailSender senderUnderTest = new PooledMailSender(javaMailSender, true, 2);
+
+        // execute
+        List<Exception> first = senderUnderTest.send(messages(senderUnderTest, 5));
+        List<Exception> second = senderUnderTest.send(messages(senderUnderTest, 5));
+        senderUnderTest.shutdown();
+
+        // assert
+        assertThat(first).containsOnlyNulls();
+        assertThat(second).containsOnlyNulls();
+        assertThat(smtp.getMessages()).hasSize(10);
+        assertThat(smtp.getConnections()).isEqualTo(1);
+        assertThat(senderUnderTest.stats().getConnections()).isEqualTo(1);
+        assertThat(senderUnderTest.stats().getBatches()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A refused recipient fails only its own message")
+    @Order(1)
+    public void send_whenRecipientIsRefused_shouldReportTheErrorOfThatMessage() throws Exception {
+        // set up
+        PooledMailSender senderUnderTest = new PooledMailSender(javaMailSender, true, 2);
+        smtp.setRejectRecipients(true);
+        List<MimeMessage> refused = messages(senderUnderTest, 1);
+
+        // execute
+        List<Exception> errors = senderUnderTest.send(refused);
+        smtp.setRejectRecipients(false);
+        errors.addAll(senderUnderTest.send(messages(senderUnderTest, 1)));
+        senderUnderTest.shutdown();
+
+        // assert
+        assertThat(errors.get(0)).isNotNull();
+        assertThat(errors.get(1)).isNull();
+        assertThat(senderUnderTest.stats().getSent()).isEqualTo(1);
+        assertThat(senderUnderTest.stats().getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Pooled sends more messages per second than one connection per message")
+    @Order(2)
+    public void send_pooledAgainstOneConnectionPerMessage_shouldBeFaster() throws Exception {
+        // set up
+        PooledMailSender oneByOne = new PooledMailSender(javaMailSender, false, 2);
+        PooledMailSender pooled = new PooledMailSender(javaMailSender, true, 2);
+        // warm up the JavaMail classes
+        oneByOne.send(messages(oneByOne, 10));
+        pooled.send(messages(pooled, 10));
+        smtp.reset();
+
+        // execute
+        MailStatsDTO oneByOneStats = sendAll(oneByOne);
+        int oneByOneConnections = smtp.getConnections();
+        smtp.reset();
+        MailStatsDTO pooledStats = sendAll(pooled);
+        int pooledConnections = smtp.getConnections();
+        pooled.shutdown();
+
+        // assert
+        assertThat(oneByOneConnections).isEqualTo(MESSAGES);
+        assertThat(pooledConnections).isEqualTo(0); // the connection of the warm up is still open
+        assertThat(pooledStats.getMessagesPerSecond()).isGreaterThan(oneByOneStats.getMessagesPerSecond());
+    }
+
+    private MailStatsDTO sendAll(PooledMailSender sender) throws MessagingException {
+        for (int i = 0; i < MESSAGES; i += 10)
+            assertThat(sender.send(messages(sender, 10))).containsOnlyNulls();
+        return sender.stats();
+    }
+
+    private List<MimeMessage> messages(PooledMailSender sender, int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            messages.add(sender.createMessage("user" + i + "@gmail.com", "Store account created", "Welcome"));
+        return messages;
+    }
+
+}
@@ -29,10 +29,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.julio.rampUp.entities.Address;
@@ -100,13 +100,13 @@ public class AddressServiceTest {
     @Order(0)
     public void findAll_shouldReturnAllAddresses() {
         // set up
-        Page<Address> page = new PageImpl<>(List.of(addressTest1, addressTest2));
+        Slice<Address> page = new SliceImpl<>(List.of(addressTest1, addressTest2));
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(0, 10, sort);
         when(addressRepo.findAllByDeleted(pageable, false)).thenReturn(page);
 
         // execute
-        List<AddressDTO> allAddresses = serviceUnderTest.findAll(0);
+        List<AddressDTO> allAddresses = serviceUnderTest.findAll(0).getContent();
 
         // assert
         assertThat(allAddresses).isNotNull();
@@ -361,14 +361,14 @@ public class AddressServiceTest {
     @Order(17)
     public void findAllAddressesByUserId_thenReturnAddressesByUserId() {
         // set up
-        Page<Address> page = new PageImpl<>(List.of(addressTest1));
+        Slice<Address> page = new SliceImpl<>(List.of(addressTest1));
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(0, 10, sort);
         int userId = 1;
         when(addressRepo.findAllAddressesByCustomerId(pageable, userId)).thenReturn(page);
 
         // execute
-        List<Address> allUserAdressess = serviceUnderTest.findAllAddressesByCustomerId(0, userId);
+        List<Address> allUserAdressess = serviceUnderTest.findAllAddressesByCustomerId(0, userId).getContent();
 
         // assert
         assertThat(allUserAdressess).isNotNull();
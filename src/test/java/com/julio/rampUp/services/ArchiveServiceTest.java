@@ -0,0 +1,295 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.julio.rampUp.entities.Address;
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.dto.ArchiveStatsDTO;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
+import com.julio.rampUp.entities.enums.AddressType;
+import com.julio.rampUp.repositories.AddressRepository;
+import com.julio.rampUp.repositories.OrderItemRepository;
+import com.julio.rampUp.repositories.OrderRepository;
+import com.julio.rampUp.services.exceptions.EmailDuplicateException;
+import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
+
+// the rows are written straight to the tables, already soft-deleted, and removed from both sides at the end
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ArchiveServiceTest {
+
+    private static final int archived = 7_000_001;
+    private static final int recent = 7_000_002;
+    private static final int referenced = 7_000_003;
+    private static final int active = 7_000_004;
+    private static final int role = 7_000_005;
+    private static final int ordered = 7_000_006;
+    private static final String email = "archived@archive.test";
+    private static final Timestamp longAgo = Timestamp.from(Instant.now().minus(90, ChronoUnit.DAYS));
+
+    @Autowired
+    private ArchiveService serviceUnderTest;
+
+    @Autowired
+    private AddressRepository addressRepo;
+
+    @Autowired
+    private OrderRepository orderRepo;
+
+    @Autowired
+    private OrderItemRepository orderItemRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public void setup() {
+        // a customer deleted long ago with its user, address and ticket
+        insertCustomer(archived, true, longAgo);
+        jdbcTemplate.update("INSERT INTO user_tb (id, email, password, customer_id, deleted, deleted_at) "
+                + "VALUES (?, ?, 'null', ?, TRUE, ?)", archived, email, archived, longAgo);
+        jdbcTemplate.update("UPDATE customer_tb SET user_id = ? WHERE id = ?", archived, archived);
+        jdbcTemplate.update("INSERT INTO user_tb_roles (user_id, roles_id) VALUES (?, 1)", archived);
+        insertAddress(archived, archived, longAgo);
+        jdbcTemplate.update("INSERT INTO ticket_tb (id, instant, message, solved, customer_id) "
+                + "VALUES (?, ?, 'late delivery', FALSE, ?)", archived, longAgo, archived);
+
+        // deleted yesterday, still within the retention window
+        insertCustomer(recent, true, Timestamp.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        // deleted long ago, but another customer's order is delivered to its address
+        insertCustomer(referenced, true, longAgo);
+        insertAddress(referenced, referenced, longAgo);
+        insertCustomer(active, false, null);
+        insertOrder(active, active, referenced, true);
+
+        jdbcTemplate.update("INSERT INTO role_tb (id, authority, deleted, deleted_at) VALUES (?, 3, TRUE, ?)", role,
+                longAgo);
+    }
+
+    @AfterAll
+    public void tearDown() {
+        for (String prefix : new String[] { "", "_archive" }) {
+            jdbcTemplate.update("DELETE FROM ticket" + prefix + "_tb WHERE id >= ?", archived);
+            jdbcTemplate.update("DELETE FROM order_item" + prefix + "_tb WHERE order_id >= ?", archived);
+            jdbcTemplate.update("DELETE FROM order" + prefix + "_tb WHERE id >= ?", archived);
+            jdbcTemplate.update("DELETE FROM address" + prefix + "_tb WHERE customer_id >= ?", archived);
+            jdbcTemplate.update("DELETE FROM role" + prefix + "_tb WHERE id = ?", role);
+        }
+        jdbcTemplate.update("DELETE FROM user_roles_archive_tb WHERE user_id >= ?", archived);
+        jdbcTemplate.update("DELETE FROM user_tb_roles WHERE user_id >= ?", archived);
+        jdbcTemplate.update("UPDATE customer_tb SET user_id = NULL WHERE id >= ?", archived);
+        jdbcTemplate.update("DELETE FROM user_tb WHERE email = ?", email);
+        jdbcTemplate.update("DELETE FROM user_archive_tb WHERE email = ?", email);
+        jdbcTemplate.update("DELETE FROM customer_tb WHERE id >= ?", archived);
+        jdbcTemplate.update("DELETE FROM customer_archive_tb WHERE id >= ?", archived);
+    }
+
+    @Test
+    @DisplayName("Soft delete records when the row was deleted")
+    @Order(0)
+    public void softDelete_shouldSetDeletedAt() {
+        // set up
+        Address address = new Address(null, "Rua A", 1, "Centro", 123, "Brasil", AddressType.HomeAddress);
+        Integer id = addressRepo.save(address).getId();
+
+        // execute
+        addressRepo.deleteById(id);
+
+        // assert
+        Timestamp deletedAt = jdbcTemplate.queryForObject("SELECT deleted_at FROM address_tb WHERE id = ?",
+                Timestamp.class, id);
+        assertThat(deletedAt).isNotNull();
+
+        // clean up
+        jdbcTemplate.update("DELETE FROM address_tb WHERE id = ?", id);
+    }
+
+    @Test
+    @DisplayName("Archive moves the customers deleted before the retention window with all their rows")
+    @Order(1)
+    public void archive_shouldMoveTheOldDeletedRows() {
+        // set up
+        ArchiveStatsDTO before = serviceUnderTest.stats();
+
+        // execute
+        int moved = serviceUnderTest.archive();
+
+        // assert
+        assertThat(moved).isGreaterThanOrEqualTo(6);
+        assertThat(count("customer_tb", "id", archived)).isZero();
+        assertThat(count("user_tb", "id", archived)).isZero();
+        assertThat(count("user_tb_roles", "user_id", archived)).isZero();
+        assertThat(count("address_tb", "customer_id", archived)).isZero();
+        assertThat(count("ticket_tb", "id", archived)).isZero();
+        assertThat(count("role_tb", "id", role)).isZero();
+
+        assertThat(count("customer_archive_tb", "id", archived)).isEqualTo(1);
+        assertThat(count("user_archive_tb", "id", archived)).isEqualTo(1);
+        assertThat(count("user_roles_archive_tb", "user_id", archived)).isEqualTo(1);
+        assertThat(count("address_archive_tb", "customer_id", archived)).isEqualTo(1);
+        assertThat(count("ticket_archive_tb", "id", archived)).isEqualTo(1);
+        assertThat(count("role_archive_tb", "id", role)).isEqualTo(1);
+
+        // the customer deleted yesterday and the one whose address is still delivered to stay
+        assertThat(count("customer_tb", "id", recent)).isEqualTo(1);
+        assertThat(count("customer_tb", "id", referenced)).isEqualTo(1);
+        assertThat(count("address_tb", "customer_id", referenced)).isEqualTo(1);
+
+        ArchiveStatsDTO after = serviceUnderTest.stats();
+        assertThat(after.getRuns()).isEqualTo(before.getRuns() + 1);
+        assertThat(after.getCustomers()).isGreaterThanOrEqualTo(before.getCustomers() + 1);
+        assertThat(after.getRoles()).isGreaterThanOrEqualTo(before.getRoles() + 1);
+        assertThat(after.getPendingCustomers()).isGreaterThanOrEqualTo(1);
+        assertThat(after.getLastRunAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Restore brings the customer and its rows back to the hot tables")
+    @Order(2)
+    public void restoreCustomer_shouldMoveTheRowsBack() {
+        // execute
+        Customer customer = serviceUnderTest.restoreCustomer(archived);
+
+        // assert
+        assertThat(customer.getId()).isEqualTo(archived);
+        assertThat(customer.getCustomerStatus()).isEqualTo("Active Customer");
+        assertThat(customer.getUser().getEmail()).isEqualTo(email);
+        assertThat(jdbcTemplate.queryForObject("SELECT customer_id FROM user_tb WHERE id = ?", Integer.class,
+                archived)).isEqualTo(archived);
+        assertThat(count("user_tb_roles", "user_id", archived)).isEqualTo(1);
+        assertThat(count("address_tb", "customer_id", archived)).isEqualTo(1);
+        assertThat(count("ticket_tb", "id", archived)).isEqualTo(1);
+        assertThat(count("customer_archive_tb", "id", archived)).isZero();
+        assertThat(count("user_archive_tb", "id", archived)).isZero();
+        assertThat(count("ticket_archive_tb", "id", archived)).isZero();
+        assertThat(serviceUnderTest.stats().getRestored()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Restore a customer that is not archived")
+    @Order(3)
+    public void restoreCustomer_whenNotArchived_shouldThrowResourceNotFoundException() {
+        // execute and assert
+        assertThrows(ResourceNotFoundException.class, () -> serviceUnderTest.restoreCustomer(recent));
+    }
+
+    @Test
+    @DisplayName("Restore a customer whose email was taken meanwhile")
+    @Order(4)
+    public void restoreCustomer_whenEmailTaken_shouldThrowEmailDuplicateException() {
+        // set up
+        jdbcTemplate.update("UPDATE customer_tb SET deleted = TRUE, deleted_at = ? WHERE id = ?", longAgo, archived);
+        jdbcTemplate.update("UPDATE user_tb SET deleted = TRUE, deleted_at = ? WHERE id = ?", longAgo, archived);
+        serviceUnderTest.archive();
+        jdbcTemplate.update("INSERT INTO user_tb (id, email, password, deleted) VALUES (?, ?, 'password', FALSE)",
+                active, email);
+
+        // execute and assert
+        assertThrows(EmailDuplicateException.class, () -> serviceUnderTest.restoreCustomer(archived));
+        assertThat(count("customer_archive_tb", "id", archived)).isEqualTo(1);
+        assertThat(count("customer_tb", "id", archived)).isZero();
+    }
+
+    @Test
+    @DisplayName("A column added to a hot table is added to its archive table and archived")
+    @Order(5)
+    public void createTables_whenHotTableHasANewColumn_shouldAddItToTheArchive() {
+        // set up
+        jdbcTemplate.execute("ALTER TABLE customer_tb ADD COLUMN nickname VARCHAR(20)");
+        try {
+            jdbcTemplate.update("UPDATE customer_tb SET nickname = 'Rec', deleted_at = ? WHERE id = ?", longAgo,
+                    recent);
+
+            // execute
+            serviceUnderTest.createTables();
+            serviceUnderTest.archive();
+
+            // assert
+            assertThat(jdbcTemplate.queryForObject("SELECT nickname FROM customer_archive_tb WHERE id = ?",
+                    String.class, recent)).isEqualTo("Rec");
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE customer_tb DROP COLUMN nickname");
+            jdbcTemplate.execute("ALTER TABLE customer_archive_tb DROP COLUMN IF EXISTS nickname");
+            serviceUnderTest.createTables();
+        }
+    }
+
+    @Test
+    @DisplayName("Archive keeps the orders of a deleted customer, and the customer, in the hot tables")
+    @Order(6)
+    public void archive_whenCustomerHasOrders_shouldLeaveTheSalesNumbersUnchanged() {
+        // set up
+        insertCustomer(ordered, true, longAgo);
+        insertAddress(ordered, ordered, longAgo);
+        insertOrder(ordered, ordered, ordered, false);
+        jdbcTemplate.update("INSERT INTO order_item_tb (order_id, items_id, discount, quantity, total_price) "
+                + "VALUES (?, 1, 0.0, 2, 150.0)", ordered);
+        insertOrder(ordered + 1, ordered, ordered, true);
+        List<List<Object>> soldBefore = soldItems();
+        StatusCountDTO cancelledBefore = orderRepo.countCancelled();
+
+        // execute
+        serviceUnderTest.archive();
+
+        // assert
+        assertThat(soldItems()).isEqualTo(soldBefore);
+        StatusCountDTO cancelledAfter = orderRepo.countCancelled();
+        assertThat(cancelledAfter.getTotal()).isEqualTo(cancelledBefore.getTotal());
+        assertThat(cancelledAfter.getFlagged()).isEqualTo(cancelledBefore.getFlagged());
+        assertThat(count("customer_tb", "id", ordered)).isEqualTo(1);
+        assertThat(count("address_tb", "customer_id", ordered)).isEqualTo(1);
+        assertThat(count("order_tb", "customer_id", ordered)).isEqualTo(2);
+        assertThat(count("order_item_tb", "order_id", ordered)).isEqualTo(1);
+        assertThat(count("order_archive_tb", "customer_id", ordered)).isZero();
+    }
+
+    private List<List<Object>> soldItems() {
+        return orderItemRepo.quantitySoldItems().stream().map(Arrays::asList).collect(Collectors.toList());
+    }
+
+    private void insertCustomer(int id, boolean deleted, Timestamp deletedAt) {
+        jdbcTemplate.update("INSERT INTO customer_tb (id, customer_name, document_number, customer_status, "
+                + "customer_type, credit_score, password, deleted, deleted_at) "
+                + "VALUES (?, 'Archived', ?, ?, ?, 'High', 'null', ?, ?)", id, id, deleted ? "isDeleted" : "Active",
+                deleted ? 4 : 1, deleted, deletedAt);
+    }
+
+    private void insertAddress(int id, int customerId, Timestamp deletedAt) {
+        jdbcTemplate.update("INSERT INTO address_tb (id, street, house_number, neighborhood, zip_code, country, "
+                + "address_type, deleted, deleted_at, customer_id) "
+                + "VALUES (?, 'Rua A', 1, 'Centro', 123, 'Brasil', 1, TRUE, ?, ?)", id, deletedAt, customerId);
+    }
+
+    private void insertOrder(int id, int customerId, int addressId, boolean cancelled) {
+        jdbcTemplate.update("INSERT INTO order_tb (id, instant, deleted, customer_id, delivery_address_id) "
+                + "VALUES (?, ?, ?, ?, ?)", id, longAgo, cancelled, customerId, addressId);
+    }
+
+    private int count(String table, String column, int id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?",
+                Integer.class, id);
+    }
+
+}
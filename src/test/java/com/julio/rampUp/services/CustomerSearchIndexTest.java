@@ -0,0 +1,236 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.dto.CustomerHitDTO;
+import com.julio.rampUp.entities.enums.CustomerType;
+import com.julio.rampUp.repositories.CustomerRepository;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CustomerSearchIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSearchIndexTest.class);
+
+    private static final int limit = 10;
+
+    private CustomerSearchIndex indexUnderTest;
+
+    @BeforeEach
+    public void setup() {
+        indexUnderTest = new CustomerSearchIndex();
+        indexUnderTest.put(1, "Maria Silva", 111);
+        indexUnderTest.put(2, "Mariana Souza", 222);
+        indexUnderTest.put(3, "Marcos Mar", 333);
+        indexUnderTest.put(4, "João Pereira", 444);
+        indexUnderTest.put(5, "Ana Maria Costa", 111);
+    }
+
+    @Test
+    @DisplayName("Search by prefix, the exact word first")
+    @Order(0)
+    public void search_whenPrefix_shouldReturnTheExactWordFirst() {
+        // execute
+        List<CustomerHitDTO> hits = indexUnderTest.search("mar", limit);
+
+        // assert
+        assertThat(hits).extracting("id").containsExactly(3, 1, 5, 2);
+        assertThat(hits.get(1).getCustomerName()).isEqualTo("Maria Silva");
+        assertThat(hits.get(1).getDocumentNumber()).isEqualTo(111);
+        assertThat(indexUnderTest.search("maria", limit)).extracting("id").containsExactly(1, 5, 2);
+        assertThat(indexUnderTest.search("mar", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Search with a typo, accents or several words")
+    @Order(1)
+    public void search_whenTyposAccentsOrSeveralWords_shouldFindTheName() {
+        // execute and assert
+        assertThat(indexUnderTest.search("silvx", limit)).extracting("id").containsExactly(1);
+        assertThat(indexUnderTest.search("slva", limit)).extracting("id").containsExactly(1);
+        assertThat(indexUnderTest.search("pereria", limit)).extracting("id").containsExactly(4);
+        assertThat(indexUnderTest.search("joao", limit)).extracting("id").containsExactly(4);
+        assertThat(indexUnderTest.search("JOÃO p", limit)).extracting("id").containsExactly(4);
+        assertThat(indexUnderTest.search("maria co", limit)).extracting("id").containsExactly(5);
+        assertThat(indexUnderTest.search("mria silva", limit)).extracting("id").containsExactly(1);
+        assertThat(indexUnderTest.search("anx", limit)).isEmpty();
+        assertThat(indexUnderTest.search("  ", limit)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Search by document number")
+    @Order(2)
+    public void search_whenDocumentNumber_shouldMatchExactly() {
+        // execute and assert
+        assertThat(indexUnderTest.search("111", limit)).extracting("id").containsExactlyInAnyOrder(1, 5);
+        assertThat(indexUnderTest.search("444", limit)).extracting("id").containsExactly(4);
+        assertThat(indexUnderTest.search("44", limit)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Update and remove customers")
+    @Order(3)
+    public void putAndRemove_shouldKeepTheIndexCurrent() {
+        // execute
+        indexUnderTest.put(1, "Beatriz Silva", 999);
+        indexUnderTest.put(4, "Joao Pereira", 444);
+        indexUnderTest.put(4, "Pedro Alves", 444);
+        indexUnderTest.put(3, null, null);
+
+        // assert
+        assertThat(indexUnderTest.search("beatriz", limit)).extracting("id").containsExactly(1);
+        assertThat(indexUnderTest.search("maria", limit)).extracting("id").containsExactly(5, 2);
+        assertThat(indexUnderTest.search("999", limit)).extracting("id").containsExactly(1);
+        assertThat(indexUnderTest.search("111", limit)).extracting("id").containsExactly(5);
+        assertThat(indexUnderTest.search("pereira", limit)).isEmpty();
+        assertThat(indexUnderTest.search("marcos", limit)).isEmpty();
+        assertThat(indexUnderTest.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Renaming a customer again and again leaves nothing behind in the typo index")
+    @Order(4)
+    public void put_whenRenamedManyTimes_shouldNotGrowTheTypoIndex() {
+        // set up
+        CustomerSearchIndex fresh = new CustomerSearchIndex();
+        fresh.put(1, "Beatriz Silva", 111);
+
+        // execute
+        CustomerSearchIndex renamed = new CustomerSearchIndex();
+        for (int i = 0; i < 100; i++) {
+            renamed.put(1, "Carla Souza", 111);
+            renamed.put(1, "Beatriz Silva", 111);
+        }
+
+        // assert
+        assertThat(typoEntries(renamed)).isEqualTo(typoEntries(fresh));
+        assertThat(renamed.search("beatrix", limit)).extracting("id").containsExactly(1);
+        assertThat(renamed.search("carl", limit)).isEmpty();
+    }
+
+    // run with -Dbenchmarks=true, the timing depends on the machine
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    @DisplayName("Benchmark: lookups at 1M customers take under a millisecond")
+    @Order(5)
+    public void search_whenOneMillionCustomers_shouldAnswerUnderAMillisecond() {
+        // set up, names from a vocabulary of made up words
+        Random random = new Random(42);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++)
+            vocabulary[i] = word(random);
+        CustomerSearchIndex index = new CustomerSearchIndex();
+        long start = System.nanoTime();
+        for (int id = 1; id <= 1_000_000; id++) {
+            index.put(id, vocabulary[random.nextInt(vocabulary.length)] + " "
+                    + vocabulary[random.nextInt(vocabulary.length)], id);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        String[] queries = new String[1000];
+        for (int i = 0; i < queries.length; i++) {
+            String word = vocabulary[random.nextInt(vocabulary.length)];
+            switch (i % 4) {
+            case 0:
+                queries[i] = word.substring(0, 2);
+                break;
+            case 1:
+                queries[i] = word.substring(1);
+                break;
+            case 2:
+                queries[i] = word + " " + vocabulary[random.nextInt(vocabulary.length)].substring(0, 1);
+                break;
+            default:
+                queries[i] = String.valueOf(random.nextInt(1_000_000) + 1);
+            }
+        }
+        for (int round = 0; round < 3; round++) {
+            for (String query : queries)
+                index.search(query, limit);
+        }
+
+        // execute
+        start = System.nanoTime();
+        int hits = 0;
+        for (String query : queries)
+            hits += index.search(query, limit).size();
+        long averageMicros = (System.nanoTime() - start) / 1000 / queries.length;
+        logger.info("Search index of {} customers built in {} ms, {} queries with {} hits, {} us per query",
+                index.size(), buildMillis, queries.length, hits, averageMicros);
+
+        // assert
+        assertThat(index.size()).isEqualTo(1_000_000);
+        assertThat(hits).isGreaterThan(queries.length);
+        assertThat(averageMicros).isLessThan(1000);
+    }
+
+    private int typoEntries(CustomerSearchIndex index) {
+        Map<?, ?> deletions = (Map<?, ?>) ReflectionTestUtils.getField(index, "deletions");
+        return deletions.values().stream().mapToInt(candidates -> ((Set<?>) candidates).size()).sum();
+    }
+
+    private String word(Random random) {
+        String consonants = "bcdfglmnprstv";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+            word.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return word.toString();
+    }
+
+    @Test
+    @DisplayName("The load skips the customers written while it runs, their rows may be older")
+    @Order(6)
+    public void load_whenCustomersAreWrittenMeanwhile_shouldKeepTheNewestData() {
+        // set up
+        CustomerSearchIndex loaded = new CustomerSearchIndex();
+        CustomerRepository customerRepo = mock(CustomerRepository.class);
+        ReflectionTestUtils.setField(loaded, "customerRepository", customerRepo);
+        ReflectionTestUtils.setField(loaded, "transactionManager", mock(PlatformTransactionManager.class));
+        // the rows are read before the writes commit, and reach the index after them
+        when(customerRepo.streamSearchRows()).thenReturn(Stream.of(1, 2, 3).map(id -> {
+            if (id == 2) {
+                loaded.put(new Customer(1, "Beatriz Silva", 999, CustomerType.NaturalPerson, "High", "password"));
+                loaded.remove(2);
+            }
+            return new Object[] { id, id == 3 ? "Marcos Mar" : id == 2 ? "Mariana Souza" : "Maria Silva", id };
+        }));
+
+        // execute
+        loaded.load();
+
+        // assert
+        assertThat(loaded.search("beatriz", limit)).extracting("id").containsExactly(1);
+        assertThat(loaded.search("mariana", limit)).isEmpty();
+        assertThat(loaded.search("marcos", limit)).extracting("id").containsExactly(3);
+        assertThat(loaded.size()).isEqualTo(2);
+
+        // afterwards every write is applied
+        loaded.remove(1);
+        assertThat(loaded.search("beatriz", limit)).isEmpty();
+    }
+
+}
@@ -30,10 +30,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.julio.rampUp.entities.Address;
@@ -66,6 +66,12 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepo;
 
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @Mock
+    private OwnershipService ownershipService;
+
     @InjectMocks
     private CustomerService serviceUnderTest;
 
@@ -95,13 +101,13 @@ public class CustomerServiceTest {
     @Order(0)
     public void findAll_shouldReturnAllCustomers() {
         // set up
-        Page<Customer> page = new PageImpl<>(List.of(customerTest1, customerTest2));
+        Slice<Customer> page = new SliceImpl<>(List.of(customerTest1, customerTest2));
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(0, 10, sort);
-        when(customerRepo.findAll(pageable)).thenReturn(page);
+        when(customerRepo.findAllBy(pageable)).thenReturn(page);
 
         // execute
-        List<CustomerDTO> allCustomers = serviceUnderTest.findAll(0);
+        List<CustomerDTO> allCustomers = serviceUnderTest.findAll(0).getContent();
 
         // assert
         assertThat(allCustomers).isNotNull();
@@ -116,7 +122,7 @@ public class CustomerServiceTest {
         assertThat(allCustomers.get(0).getUserId()).isEqualTo(customerTest1.getUser().getId());
 
         // verify
-        verify(customerRepo).findAll(pageable);
+        verify(customerRepo).findAllBy(pageable);
 
     }
 
@@ -185,6 +191,8 @@ public class CustomerServiceTest {
         // verify
         verify(userRepo, times(1)).save(any());
         verify(customerRepo, times(2)).save(any());
+        verify(searchIndex, times(1)).put(customerTest1);
+        verify(ownershipService, times(1)).evictAll();
     }
 
     @Test
@@ -275,6 +283,8 @@ public class CustomerServiceTest {
 
         // verify
         verify(customerRepo, times(1)).deleteById(testId);
+        verify(searchIndex, times(1)).remove(testId);
+        verify(ownershipService, times(1)).evictAll();
     }
 
     @Test
@@ -327,6 +337,10 @@ public class CustomerServiceTest {
         assertThat(updatedCustomer.getCreditScore()).isEqualTo(customerTest1.getCreditScore());
         assertThat(updatedCustomer.getPassword()).isEqualTo(customerTest1.getPassword());
         assertThat(updatedCustomer.getUser().getId()).isEqualTo(customerTest1.getUser().getId());
+
+        // verify
+        verify(searchIndex, times(1)).put(customerTest1);
+        verify(ownershipService, times(1)).evictAll();
     }
 
     @Test
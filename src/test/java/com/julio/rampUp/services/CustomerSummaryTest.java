@@ -0,0 +1,169 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.julio.rampUp.entities.Address;
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.dto.CustomerSummaryDTO;
+import com.julio.rampUp.entities.enums.AddressType;
+import com.julio.rampUp.entities.enums.CustomerType;
+import com.julio.rampUp.repositories.AddressRepository;
+import com.julio.rampUp.repositories.CustomerRepository;
+import com.julio.rampUp.view.View;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// a customer with a long order history, written straight to the tables and removed at the end
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CustomerSummaryTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSummaryTest.class);
+
+    private static final int orders = 10_000;
+    private static final int firstOrderId = 5_000_000;
+    private static final int runs = 5;
+    private static final Instant firstInstant = Instant.parse("2020-01-01T00:00:00Z");
+
+    @Autowired
+    private CustomerService serviceUnderTest;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private AddressRepository addressRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Customer customer;
+    private Address homeAddress;
+
+    @BeforeAll
+    public void setup() {
+        customer = customerRepo.save(
+                new Customer(null, "Long history", 999, CustomerType.LegalPerson, "High", "password"));
+        Address business = new Address(null, "Rua B", 2, "Centro", 123, "Brasil", AddressType.BusinessAddress);
+        business.setCustomer(customer);
+        addressRepo.save(business);
+        homeAddress = new Address(null, "Rua A", 1, "Centro", 123, "Brasil", AddressType.HomeAddress);
+        homeAddress.setCustomer(customer);
+        homeAddress = addressRepo.save(homeAddress);
+
+        // one order a minute, every tenth one cancelled
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            rows.add(new Object[] { firstOrderId + i, Timestamp.from(firstInstant.plus(i, ChronoUnit.MINUTES)),
+                    i % 10 == 0, customer.getId(), homeAddress.getId() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO order_tb (id, instant, deleted, customer_id, delivery_address_id) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.update("INSERT INTO order_item_tb (order_id, items_id, discount, quantity, total_price) "
+                + "VALUES (?, 1, 0.0, 2, 150.0), (?, 2, 0.0, 1, 50.0)", lastOrderId(), lastOrderId());
+    }
+
+    @AfterAll
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM order_item_tb WHERE order_id >= ?", firstOrderId);
+        jdbcTemplate.update("DELETE FROM order_tb WHERE customer_id = ?", customer.getId());
+        jdbcTemplate.update("DELETE FROM address_tb WHERE customer_id = ?", customer.getId());
+        jdbcTemplate.update("DELETE FROM customer_tb WHERE id = ?", customer.getId());
+    }
+
+    @Test
+    @DisplayName("Summary counts the whole history and returns only the newest orders")
+    @Order(0)
+    public void summary_shouldAggregateTheHistory() {
+        // execute
+        CustomerSummaryDTO summary = serviceUnderTest.summary(customer.getId(), 5);
+
+        // assert
+        assertThat(summary.getCustomerName()).isEqualTo("Long history");
+        assertThat(summary.getCustomerType()).isEqualTo(CustomerType.LegalPerson);
+        assertThat(summary.getEmail()).isNull();
+        assertThat(summary.getAddressCount()).isEqualTo(2);
+        assertThat(summary.getOrderCount()).isEqualTo(orders);
+        assertThat(summary.getCancelledOrderCount()).isEqualTo(orders / 10);
+        assertThat(summary.getLastOrderAt()).isEqualTo(firstInstant.plus(orders - 1, ChronoUnit.MINUTES));
+        assertThat(summary.getDefaultAddress().getId()).isEqualTo(homeAddress.getId());
+        assertThat(summary.getRecentOrders()).extracting("id").containsExactly(lastOrderId(), lastOrderId() - 1,
+                lastOrderId() - 2, lastOrderId() - 3, lastOrderId() - 4);
+        assertThat(summary.getRecentOrders().get(0).getItemCount()).isEqualTo(2);
+        assertThat(summary.getRecentOrders().get(0).getTotal()).isEqualTo(200.0);
+        assertThat(summary.getRecentOrders().get(1).getItemCount()).isEqualTo(0);
+        assertThat(summary.getRecentOrders().get(1).getDeliveryAddressId()).isEqualTo(homeAddress.getId());
+    }
+
+    @Test
+    @DisplayName("Benchmark: summary against the full customer graph, 10k orders")
+    @Order(1)
+    public void summary_shouldBeSmallerAndFasterThanTheFullGraph() throws Exception {
+        // set up, one run of each to warm up
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        byte[] summaryJson = objectMapper.writeValueAsBytes(serviceUnderTest.summary(customer.getId(), 5));
+        byte[] fullJson = transaction.execute(status -> fullGraph());
+
+        // execute, the best of a few runs of each, serialization included
+        long summaryNanos = Long.MAX_VALUE;
+        long fullNanos = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            objectMapper.writeValueAsBytes(serviceUnderTest.summary(customer.getId(), 5));
+            summaryNanos = Math.min(summaryNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            transaction.execute(status -> fullGraph());
+            fullNanos = Math.min(fullNanos, System.nanoTime() - start);
+        }
+        logger.info("Customer with {} orders, summary: {} bytes in {} us, full graph: {} bytes in {} us", orders,
+                summaryJson.length, summaryNanos / 1000, fullJson.length, fullNanos / 1000);
+
+        // assert
+        assertThat(summaryJson.length).isLessThan(2048);
+        assertThat(fullJson.length).isGreaterThan(100 * summaryJson.length);
+        assertThat(summaryNanos).isLessThan(fullNanos);
+    }
+
+    private byte[] fullGraph() {
+        try {
+            return objectMapper.writerWithView(View.Public.class)
+                    .writeValueAsBytes(serviceUnderTest.findById(customer.getId()));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private int lastOrderId() {
+        return firstOrderId + orders - 1;
+    }
+
+}
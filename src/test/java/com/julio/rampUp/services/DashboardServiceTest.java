@@ -0,0 +1,88 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.julio.rampUp.entities.ItemsSum;
+import com.julio.rampUp.entities.dto.DashboardDTO;
+import com.julio.rampUp.services.exceptions.UnexpectedException;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DashboardServiceTest {
+
+    private static final long queryMillis = 300;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private ProductOfferingService productOfferingService;
+
+    @InjectMocks
+    private DashboardService serviceUnderTest;
+
+    private List<ItemsSum> soldItems;
+
+    @BeforeEach
+    public void setup() {
+        soldItems = List.of(new ItemsSum(1, 15, "namePO1"));
+    }
+
+    @Test
+    @DisplayName("Dashboard runs its queries at the same time")
+    @Order(0)
+    public void dashboard_shouldRunTheQueriesConcurrently() {
+        // set up
+        when(orderService.ordersInfo()).thenAnswer(invocation -> slow(List.of(5, 1)));
+        when(orderService.quantitySoldItems()).thenAnswer(invocation -> slow(soldItems));
+        when(productOfferingService.prodQuantity()).thenAnswer(invocation -> slow(List.of(9, 8)));
+
+        // execute
+        long start = System.nanoTime();
+        DashboardDTO dashboard = serviceUnderTest.dashboard();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // assert
+        assertThat(dashboard.getOrdersInfo()).containsExactly(5, 1);
+        assertThat(dashboard.getSoldItems()).isEqualTo(soldItems);
+        assertThat(dashboard.getProductsInfo()).containsExactly(9, 8);
+        assertThat(elapsedMillis).isLessThan(3 * queryMillis);
+    }
+
+    @Test
+    @DisplayName("(Exception) Dashboard - a query fails")
+    @Order(1)
+    public void dashboard_whenAQueryFails_thenThrowItsException() {
+        // set up
+        when(orderService.ordersInfo()).thenThrow(new UnexpectedException("orders"));
+        when(orderService.quantitySoldItems()).thenReturn(soldItems);
+        when(productOfferingService.prodQuantity()).thenReturn(List.of(9, 8));
+
+        // execute and assert
+        assertThatThrownBy(() -> serviceUnderTest.dashboard()).isInstanceOf(UnexpectedException.class)
+                .hasMessageContaining("orders");
+    }
+
+    private <T> T slow(T value) throws InterruptedException {
+        Thread.sleep(queryMillis);
+        return value;
+    }
+
+}
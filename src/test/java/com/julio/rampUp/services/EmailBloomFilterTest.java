@@ -0,0 +1,79 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.julio.rampUp.repositories.UserRepository;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class EmailBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepo;
+
+    @InjectMocks
+    private EmailBloomFilter filterUnderTest = new EmailBloomFilter(1_000, 0.01);
+
+    @Test
+    @DisplayName("Before the emails are loaded every email might be in use")
+    @Order(0)
+    public void mightContain_whenNotLoaded_shouldReturnTrue() {
+        // execute and assert
+        assertThat(filterUnderTest.mightContain("maria@gmail.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("The loaded and inserted emails are always found")
+    @Order(1)
+    public void mightContain_whenLoaded_shouldFindTheEmailsInUse() {
+        // set up
+        when(userRepo.findAllEmails()).thenReturn(List.of("maria@gmail.com", "joao@gmail.com"));
+
+        // execute
+        filterUnderTest.load();
+        filterUnderTest.put("ana@gmail.com");
+
+        // assert
+        assertThat(filterUnderTest.mightContain("maria@gmail.com")).isTrue();
+        assertThat(filterUnderTest.mightContain("joao@gmail.com")).isTrue();
+        assertThat(filterUnderTest.mightContain("ana@gmail.com")).isTrue();
+        assertThat(filterUnderTest.mightContain("pedro@gmail.com")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Few unknown emails are reported as maybe")
+    @Order(2)
+    public void mightContain_whenFull_shouldKeepTheFalsePositiveRateLow() {
+        // set up
+        when(userRepo.findAllEmails()).thenReturn(List.of());
+        filterUnderTest.load();
+        for (int i = 0; i < 1_000; i++)
+            filterUnderTest.put("user" + i + "@gmail.com");
+
+        // execute
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filterUnderTest.mightContain("other" + i + "@gmail.com"))
+                falsePositives++;
+        }
+
+        // assert, 1% expected
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+}
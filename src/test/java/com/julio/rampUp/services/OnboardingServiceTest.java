@@ -0,0 +1,178 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.User;
+import com.julio.rampUp.entities.dto.ImportReportDTO;
+import com.julio.rampUp.repositories.AddressRepository;
+import com.julio.rampUp.repositories.EmailOutboxRepository;
+import com.julio.rampUp.repositories.UserRepository;
+import com.julio.rampUp.services.exceptions.HashingBusyException;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class OnboardingServiceTest {
+
+    @Autowired
+    private OnboardingService serviceUnderTest;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private AddressRepository addressRepo;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    public void tearDown() {
+        ReflectionTestUtils.setField(serviceUnderTest, "chunkSize", 500);
+        ReflectionTestUtils.setField(serviceUnderTest, "passwordHashingService", passwordHashingService);
+        outboxRepo.deleteAll();
+        for (String name : List.of("ana", "caio", "dani", "fabi", "hugo", "iris", "joel", "lia"))
+            userRepo.findByEmail(name + "@bulk.test").ifPresent(userRepo::delete);
+    }
+
+    @Test
+    @DisplayName("Import the valid rows of an ndjson file and report the others")
+    @Order(0)
+    public void importNdjson_shouldImportTheValidRowsAndReportTheOthers() throws Exception {
+        // set up
+        String file = "{\"email\":\"ana@bulk.test\",\"password\":\"123456\",\"customerName\":\"Ana\","
+                + "\"documentNumber\":111,\"customerType\":\"LegalPerson\",\"creditScore\":\"High\","
+                + "\"address\":{\"street\":\"Rua A\",\"houseNumber\":10,\"neighborhood\":\"Centro\","
+                + "\"zipCode\":123,\"country\":\"Brasil\",\"addressType\":\"HomeAddress\"}}\n"
+                + "{\"email\":\"maria@gmail.com\",\"password\":\"123456\",\"customerName\":\"Maria\","
+                + "\"documentNumber\":222,\"customerType\":\"NaturalPerson\",\"creditScore\":\"High\"}\n"
+                + "not json\n"
+                + "{\"email\":\"bia@bulk.test\",\"password\":\"123456\",\"documentNumber\":333,"
+                + "\"customerType\":\"NaturalPerson\",\"creditScore\":\"Low\"}\n"
+                + "{\"email\":\"caio@bulk.test\",\"password\":\"123456\",\"customerName\":\"Caio\","
+                + "\"documentNumber\":444,\"customerType\":\"NaturalPerson\",\"creditScore\":\"Low\"}\n";
+
+        // execute
+        ImportReportDTO report = serviceUnderTest.importNdjson(stream(file));
+
+        // assert
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting("line").containsExactlyInAnyOrder(2L, 3L, 4L);
+        assertThat(report.getErrors()).extracting("message").contains("This email already has a User",
+                "Name is mandatory");
+
+        User ana = userRepo.findByEmail("ana@bulk.test").get();
+        assertThat(passwordHashingService.matches("123456", ana.getPassword())).isTrue();
+        Customer customer = ana.getCustomer();
+        assertThat(customer.getCustomerName()).isEqualTo("Ana");
+        assertThat(addressRepo.findAllAddressesByCustomerId(PageRequest.of(0, 10), customer.getId())).hasSize(1);
+        assertThat(userRepo.findByEmail("caio@bulk.test")).isPresent();
+        assertThat(outboxRepo.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Import a csv in chunks, a row the database refuses fails alone")
+    @Order(1)
+    public void importCsv_whenARowFailsOnInsert_shouldImportTheRestOfItsChunk() throws Exception {
+        // set up
+        ReflectionTestUtils.setField(serviceUnderTest, "chunkSize", 2);
+        String tooLong = "x".repeat(300);
+        String file = "email,password,customerName,documentNumber,customerType,creditScore,street\n"
+                + "dani@bulk.test,123456,Dani,555,NaturalPerson,High,\n"
+                + "edu@bulk.test,123456," + tooLong + ",666,NaturalPerson,High,\n"
+                + "fabi@bulk.test,123456,Fabi,777,LegalPerson,Low,\n"
+                + "dani@bulk.test,123456,Dani again,888,NaturalPerson,High,\n"
+                + "gabi@bulk.test,123456,Gabi,abc,NaturalPerson,High,\n";
+
+        // execute
+        ImportReportDTO report = serviceUnderTest.importCsv(stream(file));
+
+        // assert
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting("line").containsExactlyInAnyOrder(3L, 5L, 6L);
+        assertThat(report.getRowsPerSecond()).isPositive();
+        assertThat(userRepo.findByEmail("dani@bulk.test")).isPresent();
+        assertThat(userRepo.findByEmail("edu@bulk.test")).isEmpty();
+        assertThat(userRepo.findByEmail("fabi@bulk.test")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Import a csv with quoted values")
+    @Order(2)
+    public void importCsv_whenValuesAreQuoted_shouldReadThemWhole() throws Exception {
+        // set up
+        String file = "email,password,customerName,documentNumber,customerType,creditScore\n"
+                + "hugo@bulk.test,123456,\"Acme \"\"Prime\"\", Inc.\",111,LegalPerson,\"High\"\n"
+                + "iris@bulk.test,123456,\"Iris\nSilva\",222,NaturalPerson,High\n"
+                + "kai@bulk.test,123456,Kai \"K\",333,NaturalPerson,High\n";
+
+        // execute
+        ImportReportDTO report = serviceUnderTest.importCsv(stream(file));
+
+        // assert
+        assertThat(report.getRows()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting("line").containsExactly(5L);
+        Customer acme = userRepo.findByEmail("hugo@bulk.test").get().getCustomer();
+        assertThat(acme.getCustomerName()).isEqualTo("Acme \"Prime\", Inc.");
+        assertThat(acme.getCreditScore()).isEqualTo("High");
+        assertThat(acme.getDocumentNumber()).isEqualTo(111);
+        assertThat(userRepo.findByEmail("iris@bulk.test").get().getCustomer().getCustomerName())
+                .isEqualTo("Iris\nSilva");
+    }
+
+    @Test
+    @DisplayName("A chunk refused by a busy hashing pool fails its rows, the other chunks are imported")
+    @Order(3)
+    public void importCsv_whenHashingIsBusy_shouldFailOnlyThatChunk() throws Exception {
+        // set up
+        ReflectionTestUtils.setField(serviceUnderTest, "chunkSize", 1);
+        PasswordHashingService busyOnce = spy(passwordHashingService);
+        doThrow(new HashingBusyException()).doCallRealMethod().when(busyOnce).encodeAll(any());
+        ReflectionTestUtils.setField(serviceUnderTest, "passwordHashingService", busyOnce);
+        String file = "email,password,customerName,documentNumber,customerType,creditScore\n"
+                + "joel@bulk.test,123456,Joel,111,NaturalPerson,High\n"
+                + "lia@bulk.test,123456,Lia,222,NaturalPerson,High\n";
+
+        // execute
+        ImportReportDTO report = serviceUnderTest.importCsv(stream(file));
+
+        // assert
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting("line").containsExactly(2L);
+        assertThat(report.getErrors()).extracting("message").containsExactly(new HashingBusyException().getMessage());
+        assertThat(userRepo.findByEmail("joel@bulk.test")).isEmpty();
+        assertThat(userRepo.findByEmail("lia@bulk.test")).isPresent();
+    }
+
+    private InputStream stream(String file) {
+        return new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
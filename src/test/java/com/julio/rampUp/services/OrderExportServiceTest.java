@@ -0,0 +1,60 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.julio.rampUp.repositories.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@Transactional
+public class OrderExportServiceTest {
+
+    @Autowired
+    private OrderExportService serviceUnderTest;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Export every order as one JSON line, with its items")
+    public void exportNdjson_shouldWriteOneLinePerOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        serviceUnderTest.exportNdjson(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertThat(lines).hasSize((int) orderRepository.count());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asInt()).isEqualTo(orderRepository.findAll().get(0).getId());
+        assertThat(first.get("items").size()).isEqualTo(orderRepository.findAll().get(0).getOrderItems().size());
+    }
+
+    @Test
+    @DisplayName("Export every order item as one CSV line")
+    public void exportCsv_shouldWriteTheHeaderAndOneLinePerItem() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        serviceUnderTest.exportCsv(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertThat(lines.get(0)).startsWith("order_id,instant");
+        assertThat(lines.size() - 1).isGreaterThanOrEqualTo((int) orderRepository.count());
+        assertThat(lines.get(1).split(",", -1)).hasSize(9);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.OrderItem;
+import com.julio.rampUp.entities.dto.OrderDTO;
+import com.julio.rampUp.entities.dto.OrderItemDTO;
+
+@SpringBootTest
+@Transactional
+public class OrderServiceStatementsTest {
+
+    // customer 1 / address 1 and the products for sale are seeded by TestConfig
+    private static final int customerId = 1;
+    private static final int addressId = 1;
+    private static final List<Integer> productsForSale = List.of(1, 2, 3, 5, 6, 7, 8, 9);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    @DisplayName("Placing an order runs the same number of statements whatever the number of items")
+    public void insert_statementCountDoesNotGrowWithItems() {
+        long oneItem = statementsToPlace(1);
+        long manyItems = statementsToPlace(productsForSale.size());
+
+        assertThat(manyItems).isEqualTo(oneItem);
+        // customer (and its user) + address + products lookups, the order insert and one batched item insert
+        assertThat(manyItems).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Listing a page of orders loads every association in a bounded number of statements")
+    public void findAll_loadsPageWithAssociationsInBoundedStatements() {
+        entityManager.clear();
+        statistics.clear();
+        List<OrderDTO> orders = orderService.findAll(0).getContent();
+
+        assertThat(orders).isNotEmpty();
+        // slice of ids (no count), the orders with customer and address, their products and their items
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Listing the orders of a customer loads every association in a bounded number of statements")
+    public void findAllOrdersByCustomerId_loadsPageWithAssociationsInBoundedStatements() {
+        entityManager.clear();
+        statistics.clear();
+        List<Order> orders = orderService.findAllOrdersByCustomerId(0, 2).getContent();
+        for (Order order : orders) {
+            order.getCustomer().getUser().getRoles().size();
+            order.getDeliveryAddress().getStreet();
+            for (OrderItem item : order.getOrderItems()) {
+                item.getProductOffering().getProductName();
+            }
+        }
+
+        assertThat(orders).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("The dashboard counters are read with one statement and then served from the cache")
+    public void ordersInfo_readsBothCountsInOneStatement() {
+        statistics.clear();
+        List<Integer> first = orderService.ordersInfo();
+        List<Integer> cached = orderService.ordersInfo();
+
+        assertThat(cached).isEqualTo(first);
+        assertThat(first.get(0) + first.get(1)).isGreaterThan(0);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+    }
+
+    private long statementsToPlace(int items) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setCustomerId(customerId);
+        orderDTO.setDeliveryId(addressId);
+        for (Integer productId : productsForSale.subList(0, items)) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductId(productId);
+            item.setDiscount(0.1);
+            item.setQuantity(2);
+            orderDTO.getOrderItemDTO().add(item);
+        }
+
+        entityManager.clear();
+        statistics.clear();
+        orderService.insert(orderDTO);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+}
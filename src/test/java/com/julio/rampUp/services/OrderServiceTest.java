@@ -2,10 +2,13 @@ package com.julio.rampUp.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,18 +32,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
+import com.julio.rampUp.entities.ItemsSum;
 import com.julio.rampUp.entities.Order;
 import com.julio.rampUp.entities.OrderItem;
 import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.OrderDTO;
+import com.julio.rampUp.entities.dto.OrderItemDTO;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
 import com.julio.rampUp.entities.enums.AddressType;
 import com.julio.rampUp.entities.enums.CustomerType;
 import com.julio.rampUp.entities.enums.POState;
@@ -51,6 +58,7 @@ import com.julio.rampUp.repositories.OrderRepository;
 import com.julio.rampUp.repositories.ProductOfferingRepository;
 import com.julio.rampUp.services.exceptions.IdNullException;
 import com.julio.rampUp.services.exceptions.NoValueForIdException;
+import com.julio.rampUp.services.exceptions.NotForSaleException;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
 
@@ -84,6 +92,12 @@ public class OrderServiceTest {
     @Mock
     private OrderRepository orderRepo;
 
+    @Mock
+    private SalesCounter salesCounter;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
     @InjectMocks
     private OrderService serviceUnderTest;
 
@@ -134,11 +148,12 @@ public class OrderServiceTest {
     @org.junit.jupiter.api.Order(0)
     public void findAll_shouldReturnAllOrders() {
         // set up
-        Page<Order> page = new PageImpl<>(List.of(orderTest1, orderTest2));
-        when(orderRepo.findAll(any(Pageable.class))).thenReturn(page);
+        Slice<Integer> page = new SliceImpl<>(List.of(orderTest1.getId(), orderTest2.getId()));
+        when(orderRepo.findAllIds(any(Pageable.class))).thenReturn(page);
+        when(orderRepo.findAllWithCustomerByIdIn(any())).thenReturn(List.of(orderTest2, orderTest1));
 
         // execute
-        List<OrderDTO> allOrders = serviceUnderTest.findAll(0);
+        List<OrderDTO> allOrders = serviceUnderTest.findAll(0).getContent();
 
         // assert
         assertThat(allOrders).isNotNull();
@@ -191,10 +206,11 @@ public class OrderServiceTest {
     @org.junit.jupiter.api.Order(3)
     public void insert_shouldCreateNewOrder() {
         // set up
+        orderDTO.getOrderItemDTO().add(new OrderItemDTO(orderItem));
         when(customerRepo.findById(anyInt())).thenReturn(opCustomer);
         when(addressRepo.findById(anyInt())).thenReturn(opAddress);
+        when(productRepo.findAllById(any())).thenReturn(List.of(poTest));
         when(orderRepo.save(any())).thenReturn(orderTest1);
-        when(customerRepo.save(any())).thenReturn(customerTest);
 
         // execute
         Order newOrder = serviceUnderTest.insert(orderDTO);
@@ -202,16 +218,40 @@ public class OrderServiceTest {
         // assert
         assertThat(newOrder).isNotNull();
         assertThat(newOrder.getId()).isEqualTo(orderTest1.getId());
-
+        assertThat(newOrder.getOrderItems().size()).isEqualTo(1);
 
         //verify
-        verify(customerRepo,times(1)).save(any());
-        verify(orderRepo,times(2)).save(any());
+        verify(productRepo, times(1)).findAllById(any());
+        verify(productRepo, never()).findById(anyInt());
+        verify(orderItemRepo, times(1)).saveAll(any());
+        verify(customerRepo, never()).save(any());
+        verify(orderRepo, times(1)).save(any());
+        verify(salesCounter, times(1)).addOrder(orderTest1);
     }
 
     @Test
-    @DisplayName("(Exception) Insert a new order - User Id not Found")
+    @DisplayName("(Exception) Insert a new order - Product not for sale")
     @org.junit.jupiter.api.Order(4)
+    public void insert_whenProductIsNotForSale_thenThrowNotForSaleException() {
+        // set up
+        poTest.setSellIndicator(false);
+        orderDTO.getOrderItemDTO().add(new OrderItemDTO(orderItem));
+        when(customerRepo.findById(anyInt())).thenReturn(opCustomer);
+        when(addressRepo.findById(anyInt())).thenReturn(opAddress);
+        when(productRepo.findAllById(any())).thenReturn(List.of(poTest));
+
+        // execute and assert
+        assertThatThrownBy(() -> serviceUnderTest.insert(orderDTO)).isInstanceOf(NotForSaleException.class)
+                .hasMessageContaining("Product Offering is not for sale. Id - " + poTest.getId());
+
+        // verify
+        verify(orderRepo, never()).save(any());
+        verify(orderItemRepo, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("(Exception) Insert a new order - User Id not Found")
+    @org.junit.jupiter.api.Order(5)
     public void insert_whenUserIdNotFound_thenThrowNoSuchElementException() {
         // set up
         when(customerRepo.findById(anyInt())).thenThrow(NoSuchElementException.class);
@@ -224,7 +264,7 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("(Exception) Insert a new order - Customer or Address Id null")
-    @org.junit.jupiter.api.Order(5)
+    @org.junit.jupiter.api.Order(6)
     public void insert_whenCustomerOrAddressIdIsNull_thenThrowInvalidDataAccessApiUsageException() {
         // set up
         when(customerRepo.findById(anyInt())).thenThrow(InvalidDataAccessApiUsageException.class);
@@ -236,7 +276,7 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("(Exception) Insert a new order - Unexpected Exception")
-    @org.junit.jupiter.api.Order(6)
+    @org.junit.jupiter.api.Order(7)
     public void insert_whenUnexpectedHappens_thenThrowUnexpectedException() {
         // set up
         when(customerRepo.findById(anyInt())).thenThrow(RuntimeException.class);
@@ -247,9 +287,10 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("Delete order by Id")
-    @org.junit.jupiter.api.Order(7)
+    @org.junit.jupiter.api.Order(8)
     public void deleteById_shouldDeleteOrderById() {
         // set up
+        when(orderRepo.findById(anyInt())).thenReturn(Optional.of(orderTest1));
         doNothing().when(orderRepo).deleteById(anyInt());
 
         // execute
@@ -257,11 +298,12 @@ public class OrderServiceTest {
 
         // verify
         verify(orderRepo, times(1)).deleteById(testId);
+        verify(salesCounter, times(1)).removeOrder(orderTest1);
     }
 
     @Test
     @DisplayName("(Exception) Delete order by Id - Id not found")
-    @org.junit.jupiter.api.Order(8)
+    @org.junit.jupiter.api.Order(9)
     public void deleteById_whenIdNotFound_shouldThrowResourceNotFoundException() {
         // set up
         doThrow(EmptyResultDataAccessException.class).when(orderRepo).deleteById(anyInt());
@@ -273,7 +315,7 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("(Exception) Delete order by Id - Unexpected Exception")
-    @org.junit.jupiter.api.Order(9)
+    @org.junit.jupiter.api.Order(10)
     public void deleteById_whenUnexpectedHappens_thenThrowUnexpectedException() {
         // set up
         doThrow(RuntimeException.class).when(orderRepo).deleteById(anyInt());
@@ -284,7 +326,7 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("Update order")
-    @org.junit.jupiter.api.Order(10)
+    @org.junit.jupiter.api.Order(11)
     public void update_shouldUpdateOrder() {
         // set up
         when(orderRepo.getReferenceById(anyInt())).thenReturn(orderTest1);
@@ -305,7 +347,7 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("(Exception) Update order - Id not found")
-    @org.junit.jupiter.api.Order(11)
+    @org.junit.jupiter.api.Order(12)
     public void update_whenIdNotFound_shouldThrowResourceNotFoundException() {
         // set up
         when(orderRepo.getReferenceById(anyInt())).thenThrow(EntityNotFoundException.class);
@@ -316,7 +358,7 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("(Exception) Update order - Unexpected Exception")
-    @org.junit.jupiter.api.Order(12)
+    @org.junit.jupiter.api.Order(13)
     public void update_whenUnexpectedHappens_thenThrowUnexpectedException() {
         // set up
         when(orderRepo.getReferenceById(anyInt())).thenThrow(RuntimeException.class);
@@ -326,22 +368,141 @@ public class OrderServiceTest {
 
     @Test
     @DisplayName("Find all orders of an user")
-    @org.junit.jupiter.api.Order(13)
+    @org.junit.jupiter.api.Order(14)
     public void findAllOrdersByUserId_shouldReturnAllOrdersOffTheUser() {
         // set up
-        Page<Order> page = new PageImpl<>(List.of(orderTest1, orderTest2));
-        when(orderRepo.findAllOrdersByCustomerId(any(), anyInt())).thenReturn(page);
+        Slice<Integer> page = new SliceImpl<>(List.of(orderTest1.getId(), orderTest2.getId()));
+        when(orderRepo.findAllOrderIdsByCustomerId(any(), anyInt())).thenReturn(page);
+        when(orderRepo.findAllWithCustomerByIdIn(any())).thenReturn(List.of(orderTest1, orderTest2));
 
         // execute
-        List<Order> allOrdersCustomerTest = serviceUnderTest.findAllOrdersByCustomerId(0, 1);
+        List<Order> allOrdersCustomerTest = serviceUnderTest.findAllOrdersByCustomerId(0, 1).getContent();
 
         // assert
         assertThat(allOrdersCustomerTest).isNotNull();
         assertThat(allOrdersCustomerTest.size()).isEqualTo(2);
 
         // verify
-        verify(orderRepo).findAllOrdersByCustomerId(any(), anyInt());
+        verify(orderRepo).findAllOrderIdsByCustomerId(any(), anyInt());
+        verify(orderRepo, times(1)).findAllWithCustomerByIdIn(any());
+        verify(productRepo, times(1)).findAllByOrderIdIn(any());
+        verify(orderRepo, times(1)).findAllWithItemsByIdIn(any());
 
     }
 
+    @Test
+    @DisplayName("Get Orders after a cursor")
+    @org.junit.jupiter.api.Order(15)
+    public void findAllAfterCursor_shouldReturnOlderOrders() {
+        // set up
+        when(orderRepo.findIdsBefore(3, CursorPageDTO.pageable(6)))
+                .thenReturn(List.of(orderTest2.getId(), orderTest1.getId()));
+        when(orderRepo.findAllWithCustomerByIdIn(any())).thenReturn(List.of(orderTest1, orderTest2));
+
+        // execute
+        CursorPageDTO<OrderDTO> orders = serviceUnderTest.findAll(CursorPageDTO.encode(3), 6);
+
+        // assert
+        assertThat(orders.getContent().size()).isEqualTo(2);
+        assertThat(orders.getContent().get(0).getId()).isEqualTo(orderTest2.getId());
+        assertThat(orders.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Quantity sold of every product, including the ones never sold")
+    @org.junit.jupiter.api.Order(16)
+    public void quantitySoldItems_shouldReturnSoldAndNotSoldProducts() {
+        // set up
+        ProductOffering notSold = new ProductOffering(2, "namePO2", 100.0, true, POState.Active);
+        when(productRepo.findAll(Sort.by("id"))).thenReturn(List.of(poTest, notSold));
+        when(salesCounter.quantitySold(1)).thenReturn(15L);
+
+        // execute
+        List<ItemsSum> soldItems = serviceUnderTest.quantitySoldItems();
+
+        // assert
+        assertThat(soldItems.size()).isEqualTo(2);
+        assertThat(soldItems.get(0).getProd_id()).isEqualTo(1);
+        assertThat(soldItems.get(0).getQuantity()).isEqualTo(15);
+        assertThat(soldItems.get(1).getProd_name()).isEqualTo("namePO2");
+        assertThat(soldItems.get(1).getQuantity()).isEqualTo(0);
+
+        // verify
+        verify(orderItemRepo, never()).quantitySoldItems();
+    }
+
+    @Test
+    @DisplayName("Quantity of orders and cancelled orders, cached until an order is cancelled")
+    @org.junit.jupiter.api.Order(17)
+    public void ordersInfo_shouldBeCachedUntilAnOrderIsCancelled() {
+        // set up
+        when(orderRepo.countCancelled()).thenReturn(new StatusCountDTO(6L, 1L));
+        doNothing().when(orderRepo).deleteById(anyInt());
+
+        // execute
+        List<Integer> first = serviceUnderTest.ordersInfo();
+        List<Integer> cached = serviceUnderTest.ordersInfo();
+        serviceUnderTest.deleteById(testId);
+        serviceUnderTest.ordersInfo();
+
+        // assert
+        assertThat(first).containsExactly(5, 1);
+        assertThat(cached).containsExactly(5, 1);
+
+        // verify
+        verify(orderRepo, times(2)).countCancelled();
+    }
+
+    @Test
+    @DisplayName("Insert an order with two lines of the same product")
+    @org.junit.jupiter.api.Order(18)
+    public void insert_whenProductIsRepeated_shouldMergeTheLines() {
+        // set up
+        orderDTO.getOrderItemDTO().add(new OrderItemDTO(orderItem));
+        orderDTO.getOrderItemDTO().add(new OrderItemDTO(orderItem));
+        when(customerRepo.findById(anyInt())).thenReturn(opCustomer);
+        when(addressRepo.findById(anyInt())).thenReturn(opAddress);
+        when(productRepo.findAllById(any())).thenReturn(List.of(poTest));
+        when(orderRepo.save(any())).thenReturn(orderTest2);
+
+        // execute
+        Order newOrder = serviceUnderTest.insert(orderDTO);
+
+        // assert
+        assertThat(newOrder.getOrderItems()).hasSize(1);
+        OrderItem merged = newOrder.getOrderItems().iterator().next();
+        assertThat(merged.getQuantity()).isEqualTo(2 * orderItem.getQuantity());
+        assertThat(merged.getTotalPrice()).isEqualTo(2 * orderItem.getTotalPrice());
+
+        // verify
+        verify(orderItemRepo, times(1)).saveAll(argThat(items -> items.spliterator().getExactSizeIfKnown() == 1));
+    }
+
+    @Test
+    @DisplayName("Insert an order with two lines of the same product at different discounts")
+    @org.junit.jupiter.api.Order(19)
+    public void insert_whenProductIsRepeatedWithAnotherDiscount_shouldWeightTheDiscount() {
+        // set up
+        OrderItemDTO discounted = new OrderItemDTO(orderItem);
+        discounted.setDiscount(0.3);
+        discounted.setQuantity(15);
+        orderDTO.getOrderItemDTO().add(new OrderItemDTO(orderItem));
+        orderDTO.getOrderItemDTO().add(discounted);
+        when(customerRepo.findById(anyInt())).thenReturn(opCustomer);
+        when(addressRepo.findById(anyInt())).thenReturn(opAddress);
+        when(productRepo.findAllById(any())).thenReturn(List.of(poTest));
+        when(orderRepo.save(any())).thenReturn(orderTest2);
+
+        // execute
+        Order newOrder = serviceUnderTest.insert(orderDTO);
+
+        // assert
+        OrderItem merged = newOrder.getOrderItems().iterator().next();
+        assertThat(merged.getQuantity()).isEqualTo(20);
+        assertThat(merged.getTotalPrice()).isCloseTo(50000.0 * 5 * 0.9 + 50000.0 * 15 * 0.7, within(1e-6));
+        assertThat(merged.getDiscount()).isCloseTo(0.25, within(1e-9));
+        assertThat(poTest.getUnitPrice() * merged.getQuantity() * (1 - merged.getDiscount()))
+                .isCloseTo(merged.getTotalPrice(), within(1e-6));
+    }
+
 }
@@ -0,0 +1,213 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.julio.rampUp.config.UserClaimsTokenEnhancer;
+import com.julio.rampUp.repositories.CustomerRepository;
+import com.julio.rampUp.repositories.OrderRepository;
+import com.julio.rampUp.repositories.UserRepository;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class OwnershipServiceTest {
+
+    private static final Authentication owner = new UsernamePasswordAuthenticationToken("maria@gmail.com", null);
+    private static final Authentication other = new UsernamePasswordAuthenticationToken("joao@gmail.com", null);
+    private static final int testId = 1;
+
+    @Mock
+    private CustomerRepository customerRepo;
+
+    @Mock
+    private OrderRepository orderRepo;
+
+    @Mock
+    private UserRepository userRepo;
+
+    @InjectMocks
+    private OwnershipService serviceUnderTest;
+
+    @Test
+    @DisplayName("Only the owner owns a customer, and the owner is read once")
+    @Order(0)
+    public void ownsCustomer_shouldCompareWithTheOwnerEmail() {
+        // set up
+        when(customerRepo.findOwnerEmail(anyInt())).thenReturn(Optional.of(owner.getName()));
+
+        // execute and assert
+        assertThat(serviceUnderTest.ownsCustomer(owner, testId)).isTrue();
+        assertThat(serviceUnderTest.ownsCustomer(other, testId)).isFalse();
+
+        // verify
+        verify(customerRepo, times(1)).findOwnerEmail(testId);
+    }
+
+    @Test
+    @DisplayName("Only the owner owns an order")
+    @Order(1)
+    public void ownsOrder_shouldCompareWithTheOwnerEmail() {
+        // set up
+        when(orderRepo.findOwnerEmail(anyInt())).thenReturn(Optional.of(owner.getName()));
+
+        // execute and assert
+        assertThat(serviceUnderTest.ownsOrder(owner, testId)).isTrue();
+        assertThat(serviceUnderTest.ownsOrder(other, testId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Nobody owns what does not exist")
+    @Order(2)
+    public void isUser_whenUserNotFound_shouldReturnFalse() {
+        // set up
+        when(userRepo.findEmailById(anyInt())).thenReturn(Optional.empty());
+
+        // execute and assert
+        assertThat(serviceUnderTest.isUser(owner, testId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Without a principal nothing is read")
+    @Order(3)
+    public void ownsCustomer_whenAuthenticationIsNull_shouldReturnFalse() {
+        // execute and assert
+        assertThat(serviceUnderTest.ownsCustomer(null, testId)).isFalse();
+
+        // verify
+        verify(customerRepo, never()).findOwnerEmail(anyInt());
+    }
+
+    @Test
+    @DisplayName("The id claims of the token are compared without reading the owner email")
+    @Order(4)
+    public void ownsCustomerAndIsUser_whenTokenHasTheClaims_shouldNotReadTheOwner() {
+        // set up
+        Authentication authentication = withClaims(Map.of(UserClaimsTokenEnhancer.USER_ID, 2,
+                UserClaimsTokenEnhancer.CUSTOMER_ID, 3));
+
+        // execute and assert
+        assertThat(serviceUnderTest.ownsCustomer(authentication, 3)).isTrue();
+        assertThat(serviceUnderTest.ownsCustomer(authentication, 4)).isFalse();
+        assertThat(serviceUnderTest.isUser(authentication, 2)).isTrue();
+        assertThat(serviceUnderTest.isUser(authentication, 3)).isFalse();
+
+        // verify
+        verify(customerRepo, never()).findOwnerEmail(anyInt());
+        verify(userRepo, never()).findEmailById(anyInt());
+    }
+
+    @Test
+    @DisplayName("An order is owned when its customer is the one in the token")
+    @Order(5)
+    public void ownsOrder_whenTokenHasTheCustomerClaim_shouldCompareTheCustomerOfTheOrder() {
+        // set up
+        Authentication authentication = withClaims(Map.of(UserClaimsTokenEnhancer.CUSTOMER_ID, 3));
+        when(orderRepo.findCustomerIdById(testId)).thenReturn(Optional.of(3));
+        when(orderRepo.findCustomerIdById(2)).thenReturn(Optional.of(4));
+
+        // execute and assert
+        assertThat(serviceUnderTest.ownsOrder(authentication, testId)).isTrue();
+        assertThat(serviceUnderTest.ownsOrder(authentication, testId)).isTrue();
+        assertThat(serviceUnderTest.ownsOrder(authentication, 2)).isFalse();
+
+        // verify
+        verify(orderRepo, times(1)).findCustomerIdById(testId);
+        verify(orderRepo, never()).findOwnerEmail(anyInt());
+    }
+
+    @Test
+    @DisplayName("A missing owner is not cached, the id may be created a moment later")
+    @Order(6)
+    public void ownsCustomer_whenCustomerNotFoundYet_shouldReadTheOwnerAgain() {
+        // set up
+        when(customerRepo.findOwnerEmail(testId)).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(owner.getName()));
+
+        // execute and assert, in two requests
+        assertThat(serviceUnderTest.ownsCustomer(owner, testId)).isFalse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(serviceUnderTest.ownsCustomer(owner, testId)).isTrue();
+
+        // verify
+        verify(customerRepo, times(2)).findOwnerEmail(testId);
+    }
+
+    @Test
+    @DisplayName("A probe of an order id that does not exist yet does not lock its customer out")
+    @Order(7)
+    public void ownsOrder_whenOrderNotFoundYet_shouldReadTheCustomerAgain() {
+        // set up
+        Authentication authentication = withClaims(Map.of(UserClaimsTokenEnhancer.CUSTOMER_ID, 3));
+        when(orderRepo.findCustomerIdById(testId)).thenReturn(Optional.empty()).thenReturn(Optional.of(3));
+
+        // execute and assert
+        assertThat(serviceUnderTest.ownsOrder(authentication, testId)).isFalse();
+        assertThat(serviceUnderTest.ownsOrder(authentication, testId)).isTrue();
+
+        // verify
+        verify(orderRepo, times(2)).findCustomerIdById(testId);
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the owners are evicted only once it commits")
+    @Order(8)
+    public void evictAll_whenInTransaction_shouldEvictAfterCommit() {
+        // set up
+        when(customerRepo.findOwnerEmail(testId)).thenReturn(Optional.of(owner.getName()))
+                .thenReturn(Optional.of(other.getName()));
+        assertThat(serviceUnderTest.ownsCustomer(owner, testId)).isTrue();
+
+        // execute and assert
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            serviceUnderTest.evictAll();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            assertThat(serviceUnderTest.ownsCustomer(owner, testId)).isTrue();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(serviceUnderTest.ownsCustomer(owner, testId)).isFalse();
+
+        // verify
+        verify(customerRepo, times(2)).findOwnerEmail(testId);
+    }
+
+    private Authentication withClaims(Map<String, Object> claims) {
+        OAuth2AuthenticationDetails details = new OAuth2AuthenticationDetails(new MockHttpServletRequest());
+        details.setDecodedDetails(claims);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "maria@gmail.com", null);
+        authentication.setDetails(details);
+        return authentication;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.julio.rampUp.entities.dto.HashingStatsDTO;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PasswordHashingServiceTest {
+
+    // the hash of 1234567 seeded by TestConfig, made with cost 10
+    private static final String seededHash = "$2a$10$fN9VsZ8Uo9LpiDNcKq8SAuW7vpGafpMxlrS1/uto8pc5a8LlycPDS";
+
+    private PasswordHashingService serviceUnderTest;
+
+    @BeforeEach
+    public void setup() {
+        serviceUnderTest = new PasswordHashingService(4, 1, 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        serviceUnderTest.shutdown();
+    }
+
+    @Test
+    @DisplayName("Hash a password on the pool and check it")
+    @Order(0)
+    public void encode_shouldReturnAHashThatMatches() {
+        // execute
+        String hash = serviceUnderTest.encode("1234567");
+
+        // assert
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(serviceUnderTest.matches("1234567", hash)).isTrue();
+        assertThat(serviceUnderTest.matches("7654321", hash)).isFalse();
+        assertThat(serviceUnderTest.matches("1234567", seededHash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Only a hash made with another cost needs to be made again")
+    @Order(1)
+    public void upgradeEncoding_whenCostChanged_shouldReturnTrue() {
+        // execute and assert
+        assertThat(serviceUnderTest.upgradeEncoding(seededHash)).isTrue();
+        assertThat(serviceUnderTest.upgradeEncoding(serviceUnderTest.encode("1234567"))).isFalse();
+        assertThat(serviceUnderTest.asPasswordEncoder().upgradeEncoding(seededHash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Count the hashes done on the pool")
+    @Order(2)
+    public void stats_shouldCountTheCompletedHashes() {
+        // execute
+        serviceUnderTest.encode("1234567");
+        serviceUnderTest.asPasswordEncoder().encode("1234567");
+        HashingStatsDTO stats = serviceUnderTest.stats();
+
+        // assert
+        assertThat(stats.getStrength()).isEqualTo(4);
+        assertThat(stats.getCompleted()).isEqualTo(2);
+        assertThat(stats.getQueued()).isEqualTo(0);
+        assertThat(stats.getRejected()).isEqualTo(0);
+    }
+
+}
@@ -27,13 +27,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.dto.StatusCountDTO;
 import com.julio.rampUp.entities.enums.POState;
 import com.julio.rampUp.repositories.ProductOfferingRepository;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
@@ -67,11 +68,11 @@ public class ProductOfferingServiceTest {
     @Order(0)
     public void findAll_shouldReturnAllProductOfferings() {
         // set up
-        Page<ProductOffering> page = new PageImpl<>(List.of(poTest1, poTest2));
-        when(productRepo.findAll(any(Pageable.class))).thenReturn(page);
+        Slice<ProductOffering> page = new SliceImpl<>(List.of(poTest1, poTest2));
+        when(productRepo.findAllBy(any(Pageable.class))).thenReturn(page);
 
         // execute
-        List<ProductOffering> allProducts = serviceUnderTest.findAll(0);
+        List<ProductOffering> allProducts = serviceUnderTest.findAll(0).getContent();
 
         // assert
         assertThat(allProducts).isNotNull();
@@ -236,4 +237,26 @@ public class ProductOfferingServiceTest {
                 .isInstanceOf(UnexpectedException.class);
     }
 
+    @Test
+    @DisplayName("Quantity of products and products for sale, cached until a product is written")
+    @Order(11)
+    public void prodQuantity_shouldBeCachedUntilAProductIsWritten() {
+        // set up
+        when(productRepo.countForSale()).thenReturn(new StatusCountDTO(9L, 8L));
+        when(productRepo.save(any())).thenReturn(poTest1);
+
+        // execute
+        List<Integer> first = serviceUnderTest.prodQuantity();
+        List<Integer> cached = serviceUnderTest.prodQuantity();
+        serviceUnderTest.insert(poTest1);
+        serviceUnderTest.prodQuantity();
+
+        // assert
+        assertThat(first).containsExactly(9, 8);
+        assertThat(cached).containsExactly(9, 8);
+
+        // verify
+        verify(productRepo, times(2)).countForSale();
+    }
+
 }
@@ -0,0 +1,111 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.RevenueRollup;
+import com.julio.rampUp.entities.enums.RollupGranularity;
+import com.julio.rampUp.repositories.OrderItemRepository;
+
+@SpringBootTest
+@Transactional
+public class RevenueRollupServiceTest {
+
+    private static final Instant from = Instant.EPOCH;
+    private static final Instant to = Instant.now().plus(Duration.ofDays(2));
+
+    @Autowired
+    private RevenueRollupService serviceUnderTest;
+
+    @Autowired
+    private OrderService orderService;
+
+    @SpyBean
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("The hourly and daily rollups add up to every item sold, and a second run adds nothing")
+    public void rollup_shouldCountEveryOrderOnce() {
+        serviceUnderTest.rollup(Instant.now().plus(Duration.ofDays(1)));
+
+        assertThat(units(RollupGranularity.Hour)).isEqualTo(soldInDatabase());
+        assertThat(units(RollupGranularity.Day)).isEqualTo(soldInDatabase());
+        assertThat(serviceUnderTest.rollup(Instant.now().plus(Duration.ofDays(1)))).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Cancelling an order already rolled up takes its items out of the rollups")
+    public void removeOrder_shouldTakeTheItemsOut() {
+        serviceUnderTest.rollup(Instant.now().plus(Duration.ofDays(1)));
+        Order order = orderService.findById(2);
+        long orderUnits = order.getOrderItems().stream().mapToLong(item -> item.getQuantity()).sum();
+        long before = units(RollupGranularity.Day);
+
+        orderService.deleteById(order.getId());
+
+        assertThat(orderUnits).isGreaterThan(0);
+        assertThat(units(RollupGranularity.Day)).isEqualTo(before - orderUnits);
+        assertThat(units(RollupGranularity.Hour)).isEqualTo(before - orderUnits);
+    }
+
+    @Test
+    @DisplayName("A history spread over several days is read one day of orders at a time")
+    public void rollup_whenFarBehind_shouldGoInWindowsOfOneDay() {
+        Instant start = Instant.parse("2001-01-01T10:00:00Z");
+        for (int day = 0; day < 3; day++) {
+            int orderId = 6_000_000 + day;
+            jdbcTemplate.update("INSERT INTO order_tb (id, instant, deleted, customer_id) VALUES (?, ?, FALSE, 1)",
+                    orderId, Timestamp.from(start.plus(Duration.ofDays(day))));
+            jdbcTemplate.update("INSERT INTO order_item_tb (order_id, items_id, discount, quantity, total_price) "
+                    + "VALUES (?, 1, 0.0, 2, 100.0)", orderId);
+        }
+
+        serviceUnderTest.rollup(Instant.now().plus(Duration.ofDays(1)));
+
+        // each of the three days went in a window of its own
+        ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> to = ArgumentCaptor.forClass(Instant.class);
+        verify(orderItemRepository, atLeast(3)).findSalesPlacedBetween(from.capture(), to.capture());
+        Set<Integer> windows = new HashSet<>();
+        for (int day = 0; day < 3; day++) {
+            Instant placed = start.plus(Duration.ofDays(day));
+            for (int i = 0; i < from.getAllValues().size(); i++) {
+                if (!placed.isBefore(from.getAllValues().get(i)) && placed.isBefore(to.getAllValues().get(i)))
+                    windows.add(i);
+            }
+        }
+        assertThat(windows).hasSize(3);
+        assertThat(units(RollupGranularity.Day)).isEqualTo(soldInDatabase());
+    }
+
+    private long units(RollupGranularity granularity) {
+        List<RevenueRollup> rollups = serviceUnderTest.findRange(granularity, from, to, null);
+        return rollups.stream().mapToLong(RevenueRollup::getUnits).sum();
+    }
+
+    private long soldInDatabase() {
+        return orderItemRepository.quantitySoldItems().stream().mapToLong(row -> ((Number) row[2]).longValue()).sum();
+    }
+
+}
@@ -27,15 +27,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.julio.rampUp.entities.Role;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.enums.Authorities;
 import com.julio.rampUp.repositories.RoleRepository;
+import com.julio.rampUp.services.exceptions.InvalidCursorException;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
 
@@ -50,6 +52,9 @@ public class RoleServiceTest {
     @Mock
     private RoleRepository roleRepo;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     @InjectMocks
     private RoleService serviceUnderTest;
 
@@ -67,13 +72,13 @@ public class RoleServiceTest {
     @Order(0)
     public void findAll_shouldReturnAllRoles() {
         // set up
-        Page<Role> page = new PageImpl<>(List.of(roleAdmin, roleOperator));
+        Slice<Role> page = new SliceImpl<>(List.of(roleAdmin, roleOperator));
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(0, 10, sort);
-        when(roleRepo.findAll(pageable)).thenReturn(page);
+        when(roleRepo.findAllBy(pageable)).thenReturn(page);
 
         // execute
-        List<Role> allRoles = serviceUnderTest.findAll(0); // MUDAR DPS
+        List<Role> allRoles = serviceUnderTest.findAll(0).getContent(); // MUDAR DPS
 
         // assert
         assertThat(allRoles).isNotNull();
@@ -82,7 +87,7 @@ public class RoleServiceTest {
         assertThat(allRoles.get(0).getAuthority()).isEqualTo(roleAdmin.getAuthority());
 
         // verify
-        verify(roleRepo).findAll(pageable);
+        verify(roleRepo).findAllBy(pageable);
     }
 
     @Test
@@ -160,6 +165,7 @@ public class RoleServiceTest {
 
         // verify
         verify(roleRepo, times(1)).deleteById(testId);
+        verify(userDetailsCache, times(1)).evictAll();
     }
 
     @Test
@@ -226,4 +232,47 @@ public class RoleServiceTest {
         assertThatThrownBy(() -> serviceUnderTest.update(testId, newRole)).isInstanceOf(UnexpectedException.class);
     }
 
+    @Test
+    @DisplayName("Get Roles after a cursor")
+    @Order(11)
+    public void findAllAfterCursor_shouldReturnNextRolesAndCursor() {
+        // set up
+        Role roleTest = new Role(3, Authorities.Operator);
+        when(roleRepo.findByIdGreaterThanOrderByIdAsc(testId, CursorPageDTO.pageable(2)))
+                .thenReturn(List.of(roleOperator, roleTest, new Role(4, Authorities.Admin)));
+
+        // execute
+        CursorPageDTO<Role> roles = serviceUnderTest.findAll(CursorPageDTO.encode(testId), 2);
+
+        // assert
+        assertThat(roles.getContent().size()).isEqualTo(2);
+        assertThat(roles.getContent().get(0).getId()).isEqualTo(roleOperator.getId());
+        assertThat(CursorPageDTO.decode(roles.getNextCursor(), 0)).isEqualTo(roleTest.getId());
+    }
+
+    @Test
+    @DisplayName("Get Roles after a cursor - last page")
+    @Order(12)
+    public void findAllAfterCursor_whenLastPage_shouldReturnNoCursor() {
+        // set up
+        when(roleRepo.findByIdGreaterThanOrderByIdAsc(0, CursorPageDTO.pageable(10)))
+                .thenReturn(List.of(roleAdmin, roleOperator));
+
+        // execute
+        CursorPageDTO<Role> roles = serviceUnderTest.findAll(null, 10);
+
+        // assert
+        assertThat(roles.getContent().size()).isEqualTo(2);
+        assertThat(roles.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("(Exception) Get Roles after a cursor - Invalid cursor")
+    @Order(13)
+    public void findAllAfterCursor_whenCursorIsInvalid_shouldThrowInvalidCursorException() {
+        // execute and assert
+        assertThatThrownBy(() -> serviceUnderTest.findAll("not a cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
 }
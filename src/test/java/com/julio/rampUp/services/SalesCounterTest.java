@@ -0,0 +1,131 @@
+package com.julio.rampUp.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.julio.rampUp.entities.Order;
+import com.julio.rampUp.entities.OrderItem;
+import com.julio.rampUp.entities.ProductOffering;
+import com.julio.rampUp.entities.enums.POState;
+import com.julio.rampUp.repositories.OrderItemRepository;
+
+@SpringBootTest
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SalesCounterTest {
+
+    @Mock
+    private OrderItemRepository orderItemRepo;
+
+    @InjectMocks
+    private SalesCounter counterUnderTest;
+
+    private Order order;
+    private List<Object[]> rows;
+
+    @BeforeEach
+    public void setup() {
+        ProductOffering po1 = new ProductOffering(1, "namePO1", 50000.0, true, POState.Active);
+        ProductOffering po2 = new ProductOffering(2, "namePO2", 100.0, true, POState.Active);
+        order = new Order(1, Instant.now(), null, null);
+        order.addOrderItem(new OrderItem(order, po1, 0.1, 3));
+        order.addOrderItem(new OrderItem(order, po2, 0.1, 1));
+
+        rows = new ArrayList<>();
+        rows.add(new Object[] { 1, "namePO1", 10L });
+        rows.add(new Object[] { 2, "namePO2", 0L });
+    }
+
+    @Test
+    @DisplayName("Load the counters from the database")
+    @org.junit.jupiter.api.Order(1)
+    public void load_shouldReadTheQuantitiesFromTheDatabase() {
+        // set up
+        when(orderItemRepo.quantitySoldItems()).thenReturn(rows);
+
+        // execute
+        counterUnderTest.load();
+
+        // assert
+        assertThat(counterUnderTest.quantitySold(1)).isEqualTo(10);
+        assertThat(counterUnderTest.quantitySold(2)).isEqualTo(0);
+        assertThat(counterUnderTest.quantitySold(3)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Add and remove the items of an order")
+    @org.junit.jupiter.api.Order(2)
+    public void addOrderAndRemoveOrder_shouldUpdateTheCounters() {
+        // set up
+        when(orderItemRepo.quantitySoldItems()).thenReturn(rows);
+        counterUnderTest.load();
+
+        // execute and assert
+        counterUnderTest.addOrder(order);
+        assertThat(counterUnderTest.quantitySold(1)).isEqualTo(13);
+        assertThat(counterUnderTest.quantitySold(2)).isEqualTo(1);
+
+        counterUnderTest.removeOrder(order);
+        assertThat(counterUnderTest.quantitySold(1)).isEqualTo(10);
+        assertThat(counterUnderTest.quantitySold(2)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Reconcile the counters that drifted from the database")
+    @org.junit.jupiter.api.Order(3)
+    public void reconcile_whenCountersDrifted_shouldFixThem() {
+        // set up
+        when(orderItemRepo.quantitySoldItems()).thenReturn(rows);
+        counterUnderTest.load();
+        counterUnderTest.addOrder(order);
+
+        // execute
+        int drifted = counterUnderTest.reconcile();
+
+        // assert
+        assertThat(drifted).isEqualTo(2);
+        assertThat(counterUnderTest.quantitySold(1)).isEqualTo(10);
+        assertThat(counterUnderTest.quantitySold(2)).isEqualTo(0);
+        assertThat(counterUnderTest.reconcile()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("An order committed while the reconciliation reads the database is not lost")
+    @org.junit.jupiter.api.Order(4)
+    public void reconcile_whenOrderCommitsDuringTheQuery_shouldKeepIt() throws Exception {
+        // set up
+        when(orderItemRepo.quantitySoldItems()).thenReturn(rows);
+        counterUnderTest.load();
+        Thread[] committing = new Thread[1];
+        when(orderItemRepo.quantitySoldItems()).thenAnswer(invocation -> {
+            committing[0] = new Thread(() -> counterUnderTest.addOrder(order));
+            committing[0].start();
+            Thread.sleep(200);
+            return rows;
+        });
+
+        // execute
+        counterUnderTest.reconcile();
+        committing[0].join();
+
+        // assert
+        assertThat(counterUnderTest.quantitySold(1)).isEqualTo(13);
+        assertThat(counterUnderTest.quantitySold(2)).isEqualTo(1);
+    }
+
+}
@@ -26,15 +26,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 import com.julio.rampUp.entities.Address;
 import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.Ticket;
+import com.julio.rampUp.entities.dto.CursorPageDTO;
 import com.julio.rampUp.entities.dto.TicketDTO;
 import com.julio.rampUp.entities.enums.AddressType;
 import com.julio.rampUp.entities.enums.CustomerType;
@@ -94,11 +95,11 @@ public class TicketServiceTest {
     @Order(0)
     public void findAll_shouldReturnAllTickets() {
         // set up
-        Page<Ticket> page = new PageImpl<>(List.of(ticketTest, ticketTest2));
-        when(ticketRepo.findAll(any(Pageable.class))).thenReturn(page);
+        Slice<Ticket> page = new SliceImpl<>(List.of(ticketTest, ticketTest2));
+        when(ticketRepo.findAllBy(any(Pageable.class))).thenReturn(page);
 
         // execute
-        List<Ticket> allTickets = serviceUnderTest.findAll(0);
+        List<Ticket> allTickets = serviceUnderTest.findAll(0).getContent();
 
         // assert
         assertThat(allTickets).isNotNull();
@@ -232,13 +233,13 @@ public class TicketServiceTest {
     @Order(8)
     public void findAllTicketsByCustomerId_thenShowAllTickesForCustomer() {
         // set up
-        Page<Ticket> page = new PageImpl<>(List.of(ticketTest, ticketTest2));
+        Slice<Ticket> page = new SliceImpl<>(List.of(ticketTest, ticketTest2));
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = PageRequest.of(0, 10, sort);
         when(ticketRepo.findAllTicketsByCustomerId(any(), anyInt())).thenReturn(page);
 
         // execute
-        List<Ticket> allTicketsCustomer1 = serviceUnderTest.findAllTicketsByCustomerId(0, testId);
+        List<Ticket> allTicketsCustomer1 = serviceUnderTest.findAllTicketsByCustomerId(0, testId).getContent();
 
         // assert
         assertThat(allTicketsCustomer1).isNotNull();
@@ -292,4 +293,21 @@ public class TicketServiceTest {
         assertThatThrownBy(() -> serviceUnderTest.deleteById(testId)).isInstanceOf(UnexpectedException.class);
     }
 
+    @Test
+    @DisplayName("Get Tickets after a cursor, newest first")
+    @Order(12)
+    public void findAllAfterCursor_shouldReturnOlderTickets() {
+        // set up
+        when(ticketRepo.findByIdLessThanOrderByIdDesc(Integer.MAX_VALUE, CursorPageDTO.pageable(1)))
+                .thenReturn(List.of(ticketTest2, ticketTest));
+
+        // execute
+        CursorPageDTO<Ticket> tickets = serviceUnderTest.findAll(null, 1);
+
+        // assert
+        assertThat(tickets.getContent().size()).isEqualTo(1);
+        assertThat(tickets.getContent().get(0).getId()).isEqualTo(ticketTest2.getId());
+        assertThat(CursorPageDTO.decode(tickets.getNextCursor(), 0)).isEqualTo(ticketTest2.getId());
+    }
+
 }
@@ -6,7 +6,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,16 +26,20 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.julio.rampUp.entities.Customer;
 import com.julio.rampUp.entities.Role;
@@ -44,6 +51,7 @@ import com.julio.rampUp.repositories.UserRepository;
 import com.julio.rampUp.sendEmail.EmailHandler;
 import com.julio.rampUp.services.exceptions.EmailDuplicateException;
 import com.julio.rampUp.services.exceptions.EmailNullException;
+import com.julio.rampUp.services.exceptions.HashingBusyException;
 import com.julio.rampUp.services.exceptions.InvalidEmailException;
 import com.julio.rampUp.services.exceptions.ResourceNotFoundException;
 import com.julio.rampUp.services.exceptions.UnexpectedException;
@@ -72,6 +80,25 @@ public class UserServiceTest {
     @Mock
     private EmailHandler emailImpl;
 
+    @Mock
+    private OwnershipService ownershipService;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // never loaded here, so every answer is "maybe" and the repository decides
+    @Spy
+    private EmailBloomFilter emailFilter = new EmailBloomFilter(100, 0.01);
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache();
+
     @InjectMocks
     private UserService serviceUnderTest;
 
@@ -100,11 +127,11 @@ public class UserServiceTest {
     @Order(0)
     public void findAll_shouldReturnAllUsers() {
         // set up
-        Page<User> page = new PageImpl<>(List.of(userTest1, userTest2));
-        when(userRepo.findAll(any(Pageable.class))).thenReturn(page);
+        Slice<User> page = new SliceImpl<>(List.of(userTest1, userTest2));
+        when(userRepo.findAllBy(any(Pageable.class))).thenReturn(page);
 
         // execute
-        List<UserDTO> allUsers = serviceUnderTest.findAll(0);
+        List<UserDTO> allUsers = serviceUnderTest.findAll(0).getContent();
 
         // assert
         assertThat(allUsers).isNotNull();
@@ -164,9 +191,12 @@ public class UserServiceTest {
         assertThat(newUser.getEmail()).isEqualTo(userTest1.getEmail());
         assertThat(newUser.getPassword()).isEqualTo(userTest1.getPassword());
 
-        // verify
-        verify(userRepo).save(userTest1);
-        verify(emailImpl).sendEmail(userTest1.getEmail(), "1234567");
+        // verify, the password is hashed before the transaction takes a connection
+        InOrder inOrder = inOrder(passwordHashingService, transactionManager, userRepo);
+        inOrder.verify(passwordHashingService).encode(any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepo).save(userTest1);
+        verify(emailImpl).sendEmail(userTest1.getEmail());
     }
 
     @Test
@@ -359,4 +389,94 @@ public class UserServiceTest {
         assertThatThrownBy(() -> serviceUnderTest.loadUserByUsername(userTest1.getEmail())).isInstanceOf(UnexpectedException.class);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Repeated logins read the user once")
+    @Order(19)
+    public void loadUserByUsername_whenCalledAgain_shouldNotReadTheUserAgain() {
+        // set up
+        when(userRepo.findByEmail(anyString())).thenReturn(optionalUser);
+
+        // execute
+        UserDetails first = serviceUnderTest.loadUserByUsername(userTest1.getEmail());
+        UserDetails second = serviceUnderTest.loadUserByUsername(userTest1.getEmail());
+        serviceUnderTest.loadUserByUsername(userTest1.getEmail());
+
+        // assert
+        assertThat(second.getUsername()).isEqualTo(userTest1.getEmail());
+        assertThat(second.getPassword()).isEqualTo(userTest1.getPassword());
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        assertThat(userDetailsCache.stats().getHits()).isEqualTo(2);
+        assertThat(userDetailsCache.stats().getMisses()).isEqualTo(1);
+
+        // verify
+        verify(userRepo, times(1)).findByEmail(userTest1.getEmail());
+    }
+
+    @Test
+    @DisplayName("Deleting a user drops its cached details")
+    @Order(20)
+    public void deleteById_shouldEvictTheCachedUserDetails() {
+        // set up
+        when(userRepo.findByEmail(anyString())).thenReturn(optionalUser);
+        when(userRepo.findById(anyInt())).thenReturn(optionalUser);
+        doNothing().when(userRepo).deleteById(anyInt());
+
+        // execute
+        serviceUnderTest.loadUserByUsername(userTest1.getEmail());
+        serviceUnderTest.deleteById(testId);
+        serviceUnderTest.loadUserByUsername(userTest1.getEmail());
+
+        // verify
+        verify(userDetailsCache, times(1)).evict(userTest1.getEmail());
+        verify(userRepo, times(2)).findByEmail(userTest1.getEmail());
+    }
+
+    @Test
+    @DisplayName("The new hash of a login is saved and the cached details dropped")
+    @Order(21)
+    public void updatePassword_shouldSaveTheNewHash() {
+        // set up
+        when(userRepo.findByEmail(anyString())).thenReturn(optionalUser);
+        UserDetails details = serviceUnderTest.loadUserByUsername(userTest1.getEmail());
+
+        // execute
+        UserDetails updated = serviceUnderTest.updatePassword(details, "newHash");
+
+        // assert
+        assertThat(updated.getUsername()).isEqualTo(userTest1.getEmail());
+        assertThat(updated.getPassword()).isEqualTo("newHash");
+
+        // verify
+        verify(userRepo).updatePassword(userTest1.getEmail(), "newHash");
+        verify(userDetailsCache).evict(userTest1.getEmail());
+    }
+
+    @Test
+    @DisplayName("(Exception) Insert a new user - Too many passwords being hashed")
+    @Order(22)
+    public void insert_whenHashingIsBusy_shouldThrowHashingBusyException() {
+        // set up
+        when(passwordHashingService.encode(anyString())).thenThrow(new HashingBusyException());
+
+        // execute and assert
+        assertThatThrownBy(() -> serviceUnderTest.insert(userTest1, roleOperator))
+                .isInstanceOf(HashingBusyException.class);
+    }
+
+    @Test
+    @DisplayName("An email the filter has never seen is not looked up")
+    @Order(23)
+    public void insert_whenFilterSaysNo_shouldNotQueryTheEmail() {
+        // set up
+        doReturn(false).when(emailFilter).mightContain(anyString());
+        when(userRepo.save(any())).thenReturn(userTest1);
+
+        // execute
+        serviceUnderTest.insert(userTest1, roleOperator);
+
+        // verify
+        verify(userRepo, never()).checkEmail(anyString());
+        verify(emailFilter).put(userTest1.getEmail());
+    }
+
+}